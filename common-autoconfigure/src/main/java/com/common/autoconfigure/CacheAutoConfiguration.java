@@ -1,36 +1,104 @@
 package com.common.autoconfigure;
 
+import com.common.cache.AsyncRedisUtils;
 import com.common.cache.CacheKeyGenerator;
+import com.common.cache.ReactiveRedisUtils;
 import com.common.cache.RedisUtils;
+import com.common.cache.aspect.CacheAspect;
+import com.common.cache.aspect.RateLimitAspect;
+import com.common.cache.bloom.BloomFilterFactory;
 import com.common.cache.config.CacheProperties;
+import com.common.cache.counter.BufferedCounter;
+import com.common.cache.hotkey.HotKeyDetector;
+import com.common.cache.hotkey.HotKeyEndpoint;
+import com.common.cache.limit.RateLimiter;
+import com.common.cache.load.RefreshAheadPolicy;
+import com.common.cache.local.CaffeineLocalCache;
+import com.common.cache.local.LocalCache;
+import com.common.cache.local.LocalStoreType;
+import com.common.cache.local.NearCache;
+import com.common.cache.local.OffHeapLocalCache;
+import com.common.cache.lock.RedisLockClient;
+import com.common.cache.metrics.CacheMetrics;
+import com.common.cache.namespace.NamespaceVersions;
+import com.common.cache.resilience.CircuitBreaker;
+import com.common.cache.script.LuaScriptRegistry;
+import com.common.cache.serializer.CacheValueSerializer;
+import com.common.cache.spring.RedisUtilsCacheManager;
+import com.common.cache.ttl.ExpiryHistogram;
+import com.common.cache.ttl.TtlJitter;
+import com.common.cache.warmup.CacheWarmer;
+import com.common.cache.warmup.CacheWarmupRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheAspectSupport;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * 缓存自动配置
+ * <p>
+ * 先于Spring Boot的缓存自动配置执行，使 {@code @Cacheable} 默认使用 {@link RedisUtilsCacheManager}。
  */
-@AutoConfiguration
+@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration")
 @ConditionalOnClass({RedisTemplate.class, RedisUtils.class})
 @EnableConfigurationProperties(CacheProperties.class)
 public class CacheAutoConfiguration {
 
+    /**
+     * 命名空间版本Key所在的模块段，如 app:__ns:user
+     */
+    private static final String NAMESPACE_MODULE = "__ns";
+
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheValueSerializer")
+    public RedisSerializer<Object> cacheValueSerializer(CacheProperties properties,
+                                                        ObjectProvider<CacheMetrics> cacheMetrics) {
+        CacheValueSerializer serializer = new CacheValueSerializer(properties.getSerializer(),
+                properties.getCompressThreshold());
+        serializer.setMetrics(cacheMetrics.getIfAvailable());
+        serializer.setWarnSize(properties.getBigValue().getWarnSize() * 1024);
+        return serializer;
+    }
+
     @Bean
     @ConditionalOnMissingBean(name = "redisTemplate")
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> cacheValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(cacheValueSerializer);
+        template.setHashValueSerializer(cacheValueSerializer);
         template.afterPropertiesSet();
         return template;
     }
@@ -43,8 +111,342 @@ public class CacheAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.cache.local", name = "enabled", havingValue = "true")
+    @Conditional(NearCacheStoreCondition.class)
+    public NearCache nearCache(RedisTemplate<String, Object> redisTemplate, CacheKeyGenerator cacheKeyGenerator,
+                               CacheProperties properties) {
+        CacheProperties.LocalProperties local = properties.getLocal();
+        LocalCache store;
+        if (local.getStore() == LocalStoreType.OFF_HEAP) {
+            // 独立的序列化器实例：本地存取不计入Redis值大小指标
+            store = new OffHeapLocalCache(new CacheValueSerializer(properties.getSerializer(),
+                    properties.getCompressThreshold()), local.getOffHeapCapacity() * 1024 * 1024,
+                    local.getOffHeapSegments(), local.getMaximumSize(), local.getTtl(), TimeUnit.SECONDS);
+        } else {
+            store = new CaffeineLocalCache(local.getMaximumSize(), local.getTtl(), TimeUnit.SECONDS);
+        }
+        List<String> keyPrefixes = new ArrayList<>(local.getKeyPrefixes());
+        // 前缀为空时所有Key都参与，无需追加
+        if (!keyPrefixes.isEmpty()) {
+            for (Map.Entry<String, CacheProperties.SpringCacheSpec> entry
+                    : properties.getSpring().getCaches().entrySet()) {
+                if (entry.getValue().isLocal()) {
+                    String pattern = cacheKeyGenerator.pattern(entry.getKey());
+                    keyPrefixes.add(pattern.substring(0, pattern.length() - 1));
+                }
+            }
+        }
+        return new NearCache(store, redisTemplate, local.getInvalidationChannel(), keyPrefixes);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheListenerContainer")
+    public RedisMessageListenerContainer cacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                ObjectProvider<NearCache> nearCache,
+                                                                ObjectProvider<NamespaceVersions> namespaceVersions,
+                                                                CacheProperties properties) {
+        // 没有订阅时容器不会建立连接，分布式锁在首次等待时才注册监听
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        NearCache near = nearCache.getIfAvailable();
+        if (near != null) {
+            container.addMessageListener(near, new ChannelTopic(properties.getLocal().getInvalidationChannel()));
+        }
+        NamespaceVersions versions = namespaceVersions.getIfAvailable();
+        if (versions != null) {
+            container.addMessageListener(versions, new ChannelTopic(properties.getNamespace().getChannel()));
+        }
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheRefreshExecutor")
+    @ConditionalOnProperty(prefix = "common.cache.refresh-ahead", name = "enabled", havingValue = "true")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor(CacheProperties properties) {
+        CacheProperties.RefreshAheadProperties refresh = properties.getRefreshAhead();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refresh.getCorePoolSize());
+        executor.setMaxPoolSize(Math.max(refresh.getMaxPoolSize(), refresh.getCorePoolSize()));
+        executor.setQueueCapacity(refresh.getQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        // 拒绝策略：抛出异常，由刷新策略放弃本次刷新，调用方继续使用旧值
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.cache.refresh-ahead", name = "enabled", havingValue = "true")
+    public RefreshAheadPolicy refreshAheadPolicy(CacheProperties properties,
+                                                 @Qualifier("cacheRefreshExecutor")
+                                                 ThreadPoolTaskExecutor cacheRefreshExecutor) {
+        List<RefreshAheadPolicy.Rule> rules = new ArrayList<>();
+        for (CacheProperties.RefreshRule rule : properties.getRefreshAhead().getRules()) {
+            rules.add(new RefreshAheadPolicy.Rule(rule.getKeyPrefix(), rule.getBeta(), rule.getInitialDelta()));
+        }
+        return new RefreshAheadPolicy(rules, cacheRefreshExecutor);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisTemplate.class)
+    public BloomFilterFactory bloomFilterFactory(RedisTemplate<String, Object> redisTemplate,
+                                                 CacheKeyGenerator cacheKeyGenerator,
+                                                 CacheProperties properties) {
+        CacheProperties.BloomProperties bloom = properties.getBloom();
+        return new BloomFilterFactory(redisTemplate, cacheKeyGenerator, bloom.getBatchSize(), bloom.isLocalCopy());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
     @ConditionalOnBean(RedisTemplate.class)
-    public RedisUtils redisUtils(RedisTemplate<String, Object> redisTemplate, CacheProperties properties) {
-        return new RedisUtils(redisTemplate, properties);
+    public RedisLockClient redisLockClient(RedisTemplate<String, Object> redisTemplate,
+                                           CacheKeyGenerator cacheKeyGenerator,
+                                           @Qualifier("cacheListenerContainer")
+                                           ObjectProvider<RedisMessageListenerContainer> cacheListenerContainer,
+                                           CacheProperties properties) {
+        CacheProperties.LockProperties lock = properties.getLock();
+        return new RedisLockClient(redisTemplate, cacheKeyGenerator, cacheListenerContainer.getIfAvailable(),
+                lock.getChannel(), lock.getWatchdogTimeout(), lock.getWatchdogThreads());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisTemplate.class)
+    public BufferedCounter bufferedCounter(RedisTemplate<String, Object> redisTemplate, CacheProperties properties) {
+        CacheProperties.CounterProperties counter = properties.getCounter();
+        return new BufferedCounter(redisTemplate, counter.getFlushInterval(), counter.getMaxPendingKeys(),
+                counter.getBatchSize(), counter.getIdleFlushes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisTemplate.class)
+    public RateLimiter rateLimiter(RedisTemplate<String, Object> redisTemplate, CacheKeyGenerator cacheKeyGenerator,
+                                   CacheProperties properties) {
+        CacheProperties.LimitProperties limit = properties.getLimit();
+        return new RateLimiter(redisTemplate, cacheKeyGenerator, limit.getLocalHold(), limit.isFailOpen());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheCircuitBreaker")
+    @ConditionalOnProperty(prefix = "common.cache.resilience", name = "enabled", havingValue = "true")
+    public CircuitBreaker cacheCircuitBreaker(CacheProperties properties) {
+        CacheProperties.ResilienceProperties resilience = properties.getResilience();
+        return new CircuitBreaker("redis", resilience.getFailureRateThreshold(),
+                resilience.getSlowCallRateThreshold(), resilience.getSlowCallDuration(), resilience.getWindowSize(),
+                resilience.getMinimumCalls(), resilience.getOpenDuration(), resilience.getHalfOpenCalls());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheCallExecutor")
+    @ConditionalOnExpression("${common.cache.resilience.call-timeout:0} > 0")
+    public ThreadPoolTaskExecutor cacheCallExecutor(CacheProperties properties) {
+        int threads = Math.max(properties.getResilience().getCallThreads(), 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // 不排队：线程耗尽说明Redis已严重阻塞，直接拒绝并降级
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("cache-call-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.cache.hot-key", name = "enabled", havingValue = "true")
+    public HotKeyDetector hotKeyDetector(CacheProperties properties) {
+        CacheProperties.HotKeyProperties hotKey = properties.getHotKey();
+        return new HotKeyDetector(hotKey.getSampleRate(), TimeUnit.SECONDS.toMillis(hotKey.getWindow()),
+                hotKey.getSegments(), hotKey.getSketchWidth(), hotKey.getThreshold(), hotKey.getTopN(),
+                hotKey.getPinTtl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.cache.jitter", name = "enabled", havingValue = "true")
+    public TtlJitter ttlJitter(CacheProperties properties) {
+        CacheProperties.JitterProperties jitter = properties.getJitter();
+        List<TtlJitter.Rule> rules = new ArrayList<>();
+        for (CacheProperties.JitterRule rule : jitter.getRules()) {
+            rules.add(new TtlJitter.Rule(rule.getKeyPrefix(), rule.getRatio(),
+                    TimeUnit.SECONDS.toMillis(rule.getRange())));
+        }
+        ExpiryHistogram histogram = new ExpiryHistogram(TimeUnit.SECONDS.toMillis(jitter.getHistogramBucket()),
+                jitter.getHistogramMaxBuckets());
+        return new TtlJitter(jitter.getRatio(), TimeUnit.SECONDS.toMillis(jitter.getRange()), rules, histogram);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisTemplate.class)
+    public RedisUtils redisUtils(RedisTemplate<String, Object> redisTemplate, CacheProperties properties,
+                                 ObjectProvider<NearCache> nearCache,
+                                 ObjectProvider<RefreshAheadPolicy> refreshAheadPolicy,
+                                 ObjectProvider<TtlJitter> ttlJitter,
+                                 ObjectProvider<CacheMetrics> cacheMetrics,
+                                 @Qualifier("cacheCircuitBreaker") ObjectProvider<CircuitBreaker> cacheCircuitBreaker,
+                                 @Qualifier("cacheCallExecutor")
+                                 ObjectProvider<ThreadPoolTaskExecutor> cacheCallExecutor,
+                                 ObjectProvider<HotKeyDetector> hotKeyDetector) {
+        RedisUtils redisUtils = new RedisUtils(redisTemplate, properties);
+        NearCache near = nearCache.getIfAvailable();
+        HotKeyDetector detector = hotKeyDetector.getIfAvailable();
+        if (near != null && detector != null && detector.isPinning()) {
+            // 其他节点的写入通过失效广播清除本节点固定的热点值
+            near.setRemoteInvalidationListener(detector::invalidate);
+        }
+        redisUtils.setNearCache(near);
+        redisUtils.setRefreshAheadPolicy(refreshAheadPolicy.getIfAvailable());
+        redisUtils.setTtlJitter(ttlJitter.getIfAvailable());
+        redisUtils.setMetrics(cacheMetrics.getIfAvailable());
+        redisUtils.setCircuitBreaker(cacheCircuitBreaker.getIfAvailable());
+        redisUtils.setHotKeyDetector(detector);
+        ThreadPoolTaskExecutor callExecutor = cacheCallExecutor.getIfAvailable();
+        if (callExecutor != null) {
+            redisUtils.setCallTimeout(callExecutor.getThreadPoolExecutor(),
+                    properties.getResilience().getCallTimeout());
+        }
+        return redisUtils;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheReactiveRedisTemplate")
+    @ConditionalOnClass(name = {"reactor.core.publisher.Mono", "io.lettuce.core.RedisClient"})
+    @ConditionalOnProperty(prefix = "spring.redis", name = "client-type", havingValue = "lettuce", matchIfMissing = true)
+    public ReactiveRedisTemplate<String, Object> cacheReactiveRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory, RedisSerializer<Object> cacheValueSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(cacheValueSerializer)
+                .hashKey(new StringRedisSerializer())
+                .hashValue(cacheValueSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(name = "cacheReactiveRedisTemplate")
+    @ConditionalOnProperty(prefix = "common.cache.big-value", name = "chunk-size", havingValue = "0", matchIfMissing = true)
+    public ReactiveRedisUtils reactiveRedisUtils(ReactiveRedisTemplate<String, Object> cacheReactiveRedisTemplate,
+                                                 CacheProperties properties,
+                                                 ObjectProvider<NearCache> nearCache,
+                                                 ObjectProvider<TtlJitter> ttlJitter) {
+        ReactiveRedisUtils reactiveRedisUtils = new ReactiveRedisUtils(cacheReactiveRedisTemplate, properties);
+        reactiveRedisUtils.setNearCache(nearCache.getIfAvailable());
+        reactiveRedisUtils.setTtlJitter(ttlJitter.getIfAvailable());
+        return reactiveRedisUtils;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ReactiveRedisUtils.class)
+    public AsyncRedisUtils asyncRedisUtils(ReactiveRedisUtils reactiveRedisUtils) {
+        return new AsyncRedisUtils(reactiveRedisUtils);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisUtils.class)
+    @ConditionalOnClass(name = "org.aspectj.lang.annotation.Aspect")
+    public CacheAspect cacheAspect(RedisUtils redisUtils, CacheKeyGenerator cacheKeyGenerator,
+                                   CacheProperties properties) {
+        return new CacheAspect(redisUtils, cacheKeyGenerator, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CacheManager.class)
+    @ConditionalOnBean({RedisUtils.class, CacheAspectSupport.class})
+    @ConditionalOnProperty(prefix = "common.cache.spring", name = "enabled", havingValue = "true")
+    public RedisUtilsCacheManager cacheManager(RedisUtils redisUtils, CacheKeyGenerator cacheKeyGenerator,
+                                               CacheProperties properties) {
+        CacheProperties.SpringCacheProperties spring = properties.getSpring();
+        Map<String, Long> ttls = new LinkedHashMap<>();
+        for (Map.Entry<String, CacheProperties.SpringCacheSpec> entry : spring.getCaches().entrySet()) {
+            ttls.put(entry.getKey(), entry.getValue().getTtl());
+        }
+        return new RedisUtilsCacheManager(redisUtils, cacheKeyGenerator, spring.getTtl(), ttls,
+                spring.isCacheNullValues(), spring.isDynamic());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RedisUtils.class)
+    public LuaScriptRegistry luaScriptRegistry(RedisUtils redisUtils) {
+        return redisUtils.getScriptRegistry();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(LuaScriptRegistry.class)
+    @ConditionalOnProperty(prefix = "common.cache.namespace", name = "enabled", havingValue = "true")
+    public NamespaceVersions namespaceVersions(RedisTemplate<String, Object> redisTemplate,
+                                               LuaScriptRegistry luaScriptRegistry,
+                                               CacheKeyGenerator cacheKeyGenerator, CacheProperties properties) {
+        CacheProperties.NamespaceProperties namespace = properties.getNamespace();
+        String separator = cacheKeyGenerator.getSeparator();
+        NamespaceVersions versions = new NamespaceVersions(redisTemplate, luaScriptRegistry,
+                cacheKeyGenerator.generate(NAMESPACE_MODULE, null) + separator, separator, namespace.getChannel(),
+                TimeUnit.SECONDS.toMillis(namespace.getLocalTtl()));
+        cacheKeyGenerator.setNamespaceVersions(versions);
+        return versions;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean({RedisUtils.class, CacheWarmer.class})
+    @ConditionalOnProperty(prefix = "common.cache.warmup", name = "enabled", havingValue = "true",
+            matchIfMissing = true)
+    public CacheWarmupRunner cacheWarmupRunner(ObjectProvider<CacheWarmer<?, ?>> cacheWarmers, RedisUtils redisUtils,
+                                               CacheKeyGenerator cacheKeyGenerator, CacheProperties properties) {
+        CacheProperties.WarmupProperties warmup = properties.getWarmup();
+        return new CacheWarmupRunner(cacheWarmers.orderedStream().collect(Collectors.toList()), redisUtils,
+                cacheKeyGenerator, warmup.getBatchSize(), warmup.getParallelism(),
+                TimeUnit.SECONDS.toMillis(warmup.getTimeout()), warmup.isBlocking());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RateLimiter.class)
+    @ConditionalOnClass(name = "org.aspectj.lang.annotation.Aspect")
+    public RateLimitAspect rateLimitAspect(RateLimiter rateLimiter) {
+        return new RateLimitAspect(rateLimiter);
+    }
+
+    /**
+     * 堆内存储需要Caffeine，堆外存储不需要
+     */
+    static class NearCacheStoreCondition extends AnyNestedCondition {
+
+        NearCacheStoreCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnClass(name = "com.github.benmanes.caffeine.cache.Caffeine")
+        static class CaffeinePresent {
+        }
+
+        @ConditionalOnProperty(prefix = "common.cache.local", name = "store", havingValue = "off-heap")
+        static class OffHeapStore {
+        }
+    }
+
+    /**
+     * 热点Key端点（需引入spring-boot-actuator）
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @ConditionalOnProperty(prefix = "common.cache.hot-key", name = "enabled", havingValue = "true")
+    static class HotKeyEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HotKeyEndpoint hotKeyEndpoint(HotKeyDetector hotKeyDetector, CacheProperties properties) {
+            return new HotKeyEndpoint(hotKeyDetector, properties.getHotKey().getTopN());
+        }
     }
 }
@@ -0,0 +1,76 @@
+package com.common.autoconfigure;
+
+import com.common.cache.RedisUtils;
+import com.common.cache.config.CacheProperties;
+import com.common.cache.local.NearCache;
+import com.common.cache.metrics.CacheMetrics;
+import com.common.cache.metrics.KeyModuleResolver;
+import com.common.cache.metrics.MicrometerCacheMetrics;
+import com.common.cache.ttl.TtlJitter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 缓存指标自动配置（需引入micrometer-core，并存在MeterRegistry）
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration"
+})
+@ConditionalOnClass({MeterRegistry.class, RedisUtils.class})
+@ConditionalOnProperty(prefix = "common.cache.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public CacheMetrics cacheMetrics(MeterRegistry meterRegistry, CacheProperties properties) {
+        CacheProperties.MetricsProperties metrics = properties.getMetrics();
+        KeyModuleResolver moduleResolver = new KeyModuleResolver(properties.getKeyPrefix(),
+                properties.getKeySeparator(), metrics.isTenantAware(), metrics.getMaxModules());
+        return new MicrometerCacheMetrics(meterRegistry, moduleResolver);
+    }
+
+    /**
+     * 单例初始化完成后再绑定本地一级缓存指标，避免 NearCache -> RedisTemplate -> 序列化器 -> CacheMetrics 的循环依赖
+     */
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public SmartInitializingSingleton nearCacheMetricsBinder(ObjectProvider<CacheMetrics> cacheMetrics,
+                                                             ObjectProvider<NearCache> nearCache) {
+        return () -> {
+            CacheMetrics metrics = cacheMetrics.getIfAvailable();
+            NearCache near = nearCache.getIfAvailable();
+            if (metrics instanceof MicrometerCacheMetrics && near != null) {
+                ((MicrometerCacheMetrics) metrics).bindNearCache(near);
+            }
+        };
+    }
+
+    /**
+     * 绑定TTL打散的过期分布指标
+     */
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public SmartInitializingSingleton expiryHistogramMetricsBinder(ObjectProvider<CacheMetrics> cacheMetrics,
+                                                                   ObjectProvider<TtlJitter> ttlJitter,
+                                                                   CacheProperties properties) {
+        return () -> {
+            CacheMetrics metrics = cacheMetrics.getIfAvailable();
+            TtlJitter jitter = ttlJitter.getIfAvailable();
+            int buckets = properties.getJitter().getHistogramMetricBuckets();
+            if (metrics instanceof MicrometerCacheMetrics && jitter != null && buckets > 0) {
+                ((MicrometerCacheMetrics) metrics).bindExpiryHistogram(jitter.getHistogram(), buckets);
+            }
+        };
+    }
+}
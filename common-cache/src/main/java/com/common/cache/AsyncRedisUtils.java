@@ -0,0 +1,121 @@
+package com.common.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步Redis工具类，返回 {@link CompletableFuture}，便于在一次请求内并行发起多个缓存查询
+ * <p>
+ * 基于 {@link ReactiveRedisUtils} 实现，语义相同：future不会异常完成，未命中/空值占位时结果为null。
+ * 回调在Lettuce的I/O线程上执行，回调中不要执行阻塞操作，必要时使用 {@code thenApplyAsync} 切换线程。
+ * <pre>
+ * CompletableFuture&lt;UserDTO&gt; user = asyncRedisUtils.get(userKey);
+ * CompletableFuture&lt;Map&lt;String, OrderDTO&gt;&gt; orders = asyncRedisUtils.multiGet(orderKeys);
+ * CompletableFuture.allOf(user, orders).join();
+ * </pre>
+ */
+public class AsyncRedisUtils {
+
+    private final ReactiveRedisUtils reactiveRedisUtils;
+
+    public AsyncRedisUtils(ReactiveRedisUtils reactiveRedisUtils) {
+        this.reactiveRedisUtils = reactiveRedisUtils;
+    }
+
+    // ======================== String 操作 ========================
+
+    public CompletableFuture<Void> set(String key, Object value) {
+        return reactiveRedisUtils.set(key, value).toFuture();
+    }
+
+    public CompletableFuture<Void> set(String key, Object value, long timeout, TimeUnit unit) {
+        return reactiveRedisUtils.set(key, value, timeout, unit).toFuture();
+    }
+
+    public <T> CompletableFuture<T> get(String key) {
+        return reactiveRedisUtils.<T>get(key).toFuture();
+    }
+
+    public <T> CompletableFuture<T> get(String key, Class<T> clazz) {
+        return reactiveRedisUtils.get(key, clazz).toFuture();
+    }
+
+    public CompletableFuture<Boolean> delete(String key) {
+        return reactiveRedisUtils.delete(key).toFuture();
+    }
+
+    public CompletableFuture<Long> delete(Collection<String> keys) {
+        return reactiveRedisUtils.delete(keys).toFuture();
+    }
+
+    public CompletableFuture<Boolean> hasKey(String key) {
+        return reactiveRedisUtils.hasKey(key).toFuture();
+    }
+
+    public CompletableFuture<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return reactiveRedisUtils.expire(key, timeout, unit).toFuture();
+    }
+
+    // ======================== 批量操作 ========================
+
+    public <T> CompletableFuture<Map<String, T>> multiGet(Collection<String> keys) {
+        return reactiveRedisUtils.<T>multiGet(keys).toFuture();
+    }
+
+    public CompletableFuture<Void> multiSet(Map<String, ?> values) {
+        return reactiveRedisUtils.multiSet(values).toFuture();
+    }
+
+    public CompletableFuture<Void> multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        return reactiveRedisUtils.multiSet(values, timeout, unit).toFuture();
+    }
+
+    // ======================== 数值操作 ========================
+
+    public CompletableFuture<Long> incr(String key) {
+        return reactiveRedisUtils.incr(key).toFuture();
+    }
+
+    public CompletableFuture<Long> incr(String key, long delta) {
+        return reactiveRedisUtils.incr(key, delta).toFuture();
+    }
+
+    // ======================== Hash 操作 ========================
+
+    public CompletableFuture<Void> hSet(String key, String field, Object value) {
+        return reactiveRedisUtils.hSet(key, field, value).toFuture();
+    }
+
+    public <T> CompletableFuture<T> hGet(String key, String field) {
+        return reactiveRedisUtils.<T>hGet(key, field).toFuture();
+    }
+
+    public CompletableFuture<Map<Object, Object>> hGetAll(String key) {
+        return reactiveRedisUtils.hGetAll(key).toFuture();
+    }
+
+    public <T> CompletableFuture<Map<String, T>> hMultiGet(String key, Collection<String> fields) {
+        return reactiveRedisUtils.<T>hMultiGet(key, fields).toFuture();
+    }
+
+    public CompletableFuture<Long> hDelete(String key, Object... fields) {
+        return reactiveRedisUtils.hDelete(key, fields).toFuture();
+    }
+
+    // ======================== Set 操作 ========================
+
+    public CompletableFuture<Long> sAdd(String key, Object... values) {
+        return reactiveRedisUtils.sAdd(key, values).toFuture();
+    }
+
+    public CompletableFuture<Set<Object>> sMembers(String key) {
+        return reactiveRedisUtils.sMembers(key).toFuture();
+    }
+
+    public CompletableFuture<Boolean> sIsMember(String key, Object value) {
+        return reactiveRedisUtils.sIsMember(key, value).toFuture();
+    }
+}
@@ -1,16 +1,39 @@
 package com.common.cache;
 
 import com.common.cache.config.CacheProperties;
+import com.common.cache.namespace.NamespaceVersions;
 
 /**
  * 缓存Key生成器
  */
 public class CacheKeyGenerator {
 
-    private final CacheProperties properties;
+    private static final String DEFAULT_SEPARATOR = ":";
+
+    /**
+     * 预计算的分隔符与前缀（含分隔符），避免每次生成Key时重复读取配置
+     */
+    private final String separator;
+    private final String prefix;
+
+    /**
+     * 命名空间版本号（可选）
+     */
+    private NamespaceVersions namespaceVersions;
 
     public CacheKeyGenerator(CacheProperties properties) {
-        this.properties = properties;
+        String sep = properties.getKeySeparator();
+        this.separator = sep == null || sep.isEmpty() ? DEFAULT_SEPARATOR : sep;
+        String keyPrefix = properties.getKeyPrefix();
+        this.prefix = keyPrefix == null || keyPrefix.isEmpty() ? "" : keyPrefix + separator;
+    }
+
+    public void setNamespaceVersions(NamespaceVersions namespaceVersions) {
+        this.namespaceVersions = namespaceVersions;
+    }
+
+    public String getSeparator() {
+        return separator;
     }
 
     /**
@@ -33,26 +56,135 @@ public class CacheKeyGenerator {
      * @return 完整的缓存Key
      */
     public String generate(String module, String bizKey, String tenantId) {
-        StringBuilder sb = new StringBuilder();
-        String sep = properties.getKeySeparator();
-        if (sep == null || sep.isEmpty()) {
-            sep = ":";
-        }
+        StringBuilder sb = new StringBuilder(estimateLength(module, bizKey, tenantId));
+        appendBase(sb, module, bizKey, tenantId);
+        return sb.toString();
+    }
 
-        // 前缀
-        String prefix = properties.getKeyPrefix();
-        if (prefix != null && !prefix.isEmpty()) {
-            sb.append(prefix).append(sep);
+    /**
+     * 生成带参数的缓存Key
+     *
+     * @param module 模块名
+     * @param bizKey 业务键
+     * @param params 参数列表
+     * @return 完整的缓存Key
+     */
+    public String generateWithParams(String module, String bizKey, Object... params) {
+        if (params == null || params.length == 0) {
+            return generate(module, bizKey);
         }
+        StringBuilder sb = new StringBuilder(estimateLength(module, bizKey, null) + params.length * 12);
+        appendBase(sb, module, bizKey, null);
+        for (Object param : params) {
+            sb.append(separator).append(param != null ? param.toString() : "null");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成带命名空间版本号的缓存Key
+     *
+     * @param module 模块名
+     * @param bizKey 业务键
+     * @return 如 app:user:v1700000000000:1001
+     */
+    public String generateVersioned(String module, String bizKey) {
+        return generateVersioned(module, bizKey, null);
+    }
+
+    /**
+     * 生成带命名空间版本号的缓存Key（带租户）
+     * <p>
+     * 版本号位于模块之后，{@link #pattern(String, String)} 仍能匹配，指标按模块归类不受影响。
+     * {@link #invalidateNamespace(String, String)} 之后生成的是新版本的Key，旧Key由过期时间清理。
+     *
+     * @param module   模块名
+     * @param bizKey   业务键
+     * @param tenantId 租户ID（可选）
+     * @return 如 app:t1:user:v1700000000000:1001
+     * @throws IllegalStateException 未启用命名空间版本（common.cache.namespace.enabled）
+     */
+    public String generateVersioned(String module, String bizKey, String tenantId) {
+        long version = versions().current(module, tenantId);
+        String versioned = bizKey == null || bizKey.isEmpty()
+                ? "v" + version
+                : "v" + version + separator + bizKey;
+        return generate(module, versioned, tenantId);
+    }
+
+    /**
+     * 失效（租户下的）整个模块：一次INCR，不扫描Key
+     *
+     * @param module   模块名
+     * @param tenantId 租户ID（可选）
+     * @return 新版本号；Redis异常返回-1
+     */
+    public long invalidateNamespace(String module, String tenantId) {
+        return versions().increment(module, tenantId);
+    }
+
+    /**
+     * 预编译Key模板，适合热点路径上反复生成同一类Key
+     * <p>
+     * {@code template("user", "profile").key(id)} 与 {@code generateWithParams("user", "profile", id)} 结果一致。
+     *
+     * @param module 模块名
+     * @param bizKey 业务键
+     * @return Key模板（线程安全，可缓存为常量复用）
+     */
+    public KeyTemplate template(String module, String bizKey) {
+        return template(module, bizKey, null);
+    }
+
+    /**
+     * 预编译Key模板（带租户）
+     *
+     * @param module   模块名
+     * @param bizKey   业务键
+     * @param tenantId 租户ID（可选）
+     * @return Key模板
+     */
+    public KeyTemplate template(String module, String bizKey, String tenantId) {
+        return new KeyTemplate(generate(module, bizKey, tenantId), separator);
+    }
+
+    /**
+     * 生成模块下所有Key的匹配模式，用于 {@code RedisUtils.scan / deleteByPattern}
+     *
+     * @param module 模块名
+     * @return 如 app:user:*
+     */
+    public String pattern(String module) {
+        return pattern(module, null);
+    }
+
+    /**
+     * 生成租户/模块下所有Key的匹配模式
+     * <p>
+     * 模块为空时匹配租户下全部Key，如 {@code pattern(null, "t1")} 为 app:t1:*。
+     *
+     * @param module   模块名（可选）
+     * @param tenantId 租户ID（可选）
+     * @return 匹配模式
+     */
+    public String pattern(String module, String tenantId) {
+        return generate(module, "*", tenantId);
+    }
+
+    /**
+     * 拼接 前缀[:租户][:模块][:业务键]，并移除末尾分隔符
+     */
+    private void appendBase(StringBuilder sb, String module, String bizKey, String tenantId) {
+        sb.append(prefix);
 
         // 租户
         if (tenantId != null && !tenantId.isEmpty()) {
-            sb.append(tenantId).append(sep);
+            sb.append(tenantId).append(separator);
         }
 
         // 模块
         if (module != null && !module.isEmpty()) {
-            sb.append(module).append(sep);
+            sb.append(module).append(separator);
         }
 
         // 业务键
@@ -61,36 +193,34 @@ public class CacheKeyGenerator {
         }
 
         // 移除末尾分隔符
-        String key = sb.toString();
-        if (key.endsWith(sep)) {
-            key = key.substring(0, key.length() - sep.length());
+        int sepLength = separator.length();
+        int start = sb.length() - sepLength;
+        if (start >= 0 && endsWithSeparator(sb, start)) {
+            sb.setLength(start);
         }
-
-        return key;
     }
 
-    /**
-     * 生成带参数的缓存Key
-     *
-     * @param module 模块名
-     * @param bizKey 业务键
-     * @param params 参数列表
-     * @return 完整的缓存Key
-     */
-    public String generateWithParams(String module, String bizKey, Object... params) {
-        String baseKey = generate(module, bizKey);
-        if (params == null || params.length == 0) {
-            return baseKey;
+    private boolean endsWithSeparator(StringBuilder sb, int start) {
+        for (int i = 0; i < separator.length(); i++) {
+            if (sb.charAt(start + i) != separator.charAt(i)) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        StringBuilder sb = new StringBuilder(baseKey);
-        String sep = properties.getKeySeparator();
-        if (sep == null || sep.isEmpty()) {
-            sep = ":";
-        }
-        for (Object param : params) {
-            sb.append(sep).append(param != null ? param.toString() : "null");
+    private NamespaceVersions versions() {
+        if (namespaceVersions == null) {
+            throw new IllegalStateException("未启用命名空间版本，请配置 common.cache.namespace.enabled=true");
         }
-        return sb.toString();
+        return namespaceVersions;
+    }
+
+    private int estimateLength(String module, String bizKey, String tenantId) {
+        int length = prefix.length() + separator.length() * 2;
+        length += module != null ? module.length() : 0;
+        length += bizKey != null ? bizKey.length() : 0;
+        length += tenantId != null ? tenantId.length() : 0;
+        return length;
     }
 }
@@ -0,0 +1,123 @@
+package com.common.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预编译的缓存Key模板
+ * <p>
+ * 前缀、租户、模块、业务键在创建时一次性拼好（含末尾分隔符的字符串和UTF-8字节），
+ * 生成Key时只追加参数，单参数场景只分配结果本身。实例不可变，线程安全。
+ */
+public final class KeyTemplate {
+
+    private final String base;
+    private final String separator;
+    private final String baseWithSeparator;
+    private final byte[] baseBytes;
+
+    KeyTemplate(String base, String separator) {
+        this.base = base;
+        this.separator = separator;
+        this.baseWithSeparator = base + separator;
+        this.baseBytes = baseWithSeparator.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 不带参数的Key
+     */
+    public String key() {
+        return base;
+    }
+
+    /**
+     * 单参数Key
+     */
+    public String key(Object param) {
+        return baseWithSeparator.concat(param != null ? param.toString() : "null");
+    }
+
+    /**
+     * 单参数Key（数值ID）
+     */
+    public String key(long id) {
+        return baseWithSeparator.concat(Long.toString(id));
+    }
+
+    /**
+     * 多参数Key，参数之间以分隔符连接
+     */
+    public String key(Object... params) {
+        if (params == null || params.length == 0) {
+            return base;
+        }
+        if (params.length == 1) {
+            return key(params[0]);
+        }
+        StringBuilder sb = new StringBuilder(baseWithSeparator.length() + params.length * 12);
+        sb.append(baseWithSeparator);
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(params[i] != null ? params[i].toString() : "null");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单参数Key的UTF-8字节，可直接用于 {@code RedisConnection} 操作（与 StringRedisSerializer 结果一致）
+     */
+    public byte[] keyBytes(Object param) {
+        byte[] paramBytes = (param != null ? param.toString() : "null").getBytes(StandardCharsets.UTF_8);
+        byte[] result = new byte[baseBytes.length + paramBytes.length];
+        System.arraycopy(baseBytes, 0, result, 0, baseBytes.length);
+        System.arraycopy(paramBytes, 0, result, baseBytes.length, paramBytes.length);
+        return result;
+    }
+
+    /**
+     * 单参数Key的UTF-8字节（数值ID），数字直接写入结果数组，不创建中间字符串
+     */
+    public byte[] keyBytes(long id) {
+        int digits = stringSize(id);
+        byte[] result = new byte[baseBytes.length + digits];
+        System.arraycopy(baseBytes, 0, result, 0, baseBytes.length);
+        int pos = result.length;
+        long value = id;
+        if (value == Long.MIN_VALUE) {
+            byte[] minBytes = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(minBytes, 0, result, baseBytes.length, minBytes.length);
+            return result;
+        }
+        boolean negative = value < 0;
+        if (negative) {
+            value = -value;
+        }
+        do {
+            result[--pos] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            result[--pos] = '-';
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return base;
+    }
+
+    private static int stringSize(long value) {
+        if (value == Long.MIN_VALUE) {
+            return 20;
+        }
+        int size = value < 0 ? 2 : 1;
+        long v = Math.abs(value);
+        while (v >= 10) {
+            v /= 10;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,469 @@
+package com.common.cache;
+
+import com.common.cache.RedisUtils.ChunkManifest;
+import com.common.cache.RedisUtils.NullValue;
+import com.common.cache.config.CacheProperties;
+import com.common.cache.local.NearCache;
+import com.common.cache.ttl.TtlJitter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应式Redis工具类（基于Lettuce响应式连接，不阻塞调用线程）
+ * <p>
+ * 语义与 {@link RedisUtils} 一致：null写入空值占位，读取到空值占位视为null；Redis异常记录日志后
+ * 返回与同步版本相同的默认值，不向下游传播错误。返回值为 {@code Mono<T>} 时，未命中、空值占位和异常均为空Mono。
+ * <p>
+ * 不支持大Value分块存储：开启分块（big-value.chunk-size &gt; 0）时拒绝创建，避免写入未分块的大Value并遗留旧分块。
+ */
+@Slf4j
+public class ReactiveRedisUtils {
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final CacheProperties properties;
+
+    /**
+     * 本地一级缓存（可选）
+     */
+    private NearCache nearCache;
+
+    /**
+     * TTL打散（可选）
+     */
+    private TtlJitter ttlJitter;
+
+    public ReactiveRedisUtils(ReactiveRedisTemplate<String, Object> redisTemplate, CacheProperties properties) {
+        if (properties.getBigValue().getChunkSize() > 0) {
+            throw new IllegalStateException("ReactiveRedisUtils 不支持分块存储，请关闭 common.cache.big-value.chunk-size 或改用 RedisUtils");
+        }
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public void setTtlJitter(TtlJitter ttlJitter) {
+        this.ttlJitter = ttlJitter;
+    }
+
+    // ======================== String 操作 ========================
+
+    /**
+     * 设置缓存（使用默认过期时间）
+     */
+    public Mono<Void> set(String key, Object value) {
+        return set(key, value, properties.getDefaultTtl(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 设置缓存（指定过期时间）
+     */
+    public Mono<Void> set(String key, Object value, long timeout, TimeUnit unit) {
+        if (key == null || key.isEmpty()) {
+            return Mono.empty();
+        }
+        TimeUnit timeUnit = unit != null ? unit : TimeUnit.SECONDS;
+        long ttl = timeout > 0 ? timeout : timeUnit.convert(properties.getDefaultTtl(), TimeUnit.SECONDS);
+        Object stored = value != null ? value : NullValue.INSTANCE;
+        return redisTemplate.opsForValue().set(key, stored, ttl(key, value, ttl, timeUnit))
+                .onErrorResume(e -> {
+                    log.error("Redis set 失败: key={}", key, e);
+                    return Mono.just(false);
+                })
+                .then(invalidateNear(Collections.singletonList(key)));
+    }
+
+    /**
+     * 获取缓存
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String key) {
+        if (key == null || key.isEmpty()) {
+            return Mono.empty();
+        }
+        // 订阅时才读取本地缓存，保证重复订阅得到最新结果
+        return Mono.defer(() -> {
+            boolean near = nearCache != null && nearCache.isCacheable(key);
+            if (near) {
+                Object local = nearCache.get(key);
+                if (local != null) {
+                    return local instanceof NullValue ? Mono.empty() : Mono.just((T) local);
+                }
+            }
+            long stamp = near ? nearCache.stamp(key) : 0;
+            // 关闭分块前写入的分块清单无法在这里还原，按未命中处理
+            return redisTemplate.opsForValue().get(key)
+                    .filter(value -> !(value instanceof ChunkManifest))
+                    .doOnNext(value -> {
+                        if (near) {
+                            nearCache.put(key, value, stamp);
+                        }
+                    })
+                    .filter(value -> !(value instanceof NullValue))
+                    .map(value -> (T) value)
+                    .onErrorResume(e -> {
+                        log.error("Redis get 失败: key={}", key, e);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    /**
+     * 获取缓存（带类型）
+     */
+    public <T> Mono<T> get(String key, Class<T> clazz) {
+        return get(key).filter(clazz::isInstance).map(clazz::cast);
+    }
+
+    /**
+     * 删除缓存
+     */
+    public Mono<Boolean> delete(String key) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(false);
+        }
+        return redisTemplate.delete(key)
+                .map(count -> count > 0)
+                .onErrorResume(e -> {
+                    log.error("Redis delete 失败: key={}", key, e);
+                    return Mono.just(false);
+                })
+                .flatMap(deleted -> invalidateNear(Collections.singletonList(key)).thenReturn(deleted));
+    }
+
+    /**
+     * 批量删除
+     */
+    public Mono<Long> delete(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return redisTemplate.delete(keys.toArray(new String[0]))
+                .onErrorResume(e -> {
+                    log.error("Redis batch delete 失败", e);
+                    return Mono.just(0L);
+                })
+                .flatMap(count -> invalidateNear(keys).thenReturn(count));
+    }
+
+    /**
+     * 判断Key是否存在
+     */
+    public Mono<Boolean> hasKey(String key) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(false);
+        }
+        return redisTemplate.hasKey(key)
+                .onErrorResume(e -> {
+                    log.error("Redis hasKey 失败: key={}", key, e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * 设置过期时间
+     */
+    public Mono<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(false);
+        }
+        return redisTemplate.expire(key, Duration.ofMillis((unit != null ? unit : TimeUnit.SECONDS).toMillis(timeout)))
+                .onErrorResume(e -> {
+                    log.error("Redis expire 失败: key={}", key, e);
+                    return Mono.just(false);
+                });
+    }
+
+    // ======================== 批量操作 ========================
+
+    /**
+     * 批量获取缓存（MGET，一次往返），语义同 {@link RedisUtils#multiGet(Collection)}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<Map<String, T>> multiGet(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        Set<String> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        distinct.remove("");
+        if (distinct.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+
+        return Mono.defer(() -> {
+            Map<String, T> result = new LinkedHashMap<>(distinct.size() * 4 / 3 + 1);
+            List<String> remoteKeys = new ArrayList<>(distinct.size());
+            long[] stamps = new long[distinct.size()];
+            for (String key : distinct) {
+                if (nearCache != null && nearCache.isCacheable(key)) {
+                    Object local = nearCache.get(key);
+                    if (local != null) {
+                        result.put(key, local instanceof NullValue ? null : (T) local);
+                        continue;
+                    }
+                    stamps[remoteKeys.size()] = nearCache.stamp(key);
+                }
+                remoteKeys.add(key);
+            }
+            if (remoteKeys.isEmpty()) {
+                return Mono.just(result);
+            }
+
+            return redisTemplate.opsForValue().multiGet(remoteKeys)
+                    .map(values -> {
+                        for (int i = 0; i < remoteKeys.size() && i < values.size(); i++) {
+                            Object value = values.get(i);
+                            if (value == null || value instanceof ChunkManifest) {
+                                continue;
+                            }
+                            String key = remoteKeys.get(i);
+                            if (nearCache != null) {
+                                nearCache.put(key, value, stamps[i]);
+                            }
+                            result.put(key, value instanceof NullValue ? null : (T) value);
+                        }
+                        return result;
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Redis multiGet 失败: size={}", remoteKeys.size(), e);
+                        return Mono.just(result);
+                    })
+                    .defaultIfEmpty(result);
+        });
+    }
+
+    /**
+     * 批量设置缓存（使用默认过期时间）
+     */
+    public Mono<Void> multiSet(Map<String, ?> values) {
+        return multiSet(values, properties.getDefaultTtl(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 批量设置缓存，命令并发发出，由Lettuce在同一连接上合并写出
+     * <p>
+     * value为null的Key写入空值占位，过期时间使用 nullValueTtl；启用TTL打散时每个Key单独打散。
+     */
+    public Mono<Void> multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (values == null || values.isEmpty()) {
+            return Mono.empty();
+        }
+        TimeUnit timeUnit = unit != null ? unit : TimeUnit.SECONDS;
+        long ttl = timeout > 0 ? timeout : timeUnit.convert(properties.getDefaultTtl(), TimeUnit.SECONDS);
+        return Flux.fromIterable(values.entrySet())
+                .filter(entry -> entry.getKey() != null && !entry.getKey().isEmpty())
+                .flatMap(entry -> redisTemplate.opsForValue().set(entry.getKey(),
+                        entry.getValue() != null ? entry.getValue() : NullValue.INSTANCE,
+                        ttl(entry.getKey(), entry.getValue(), ttl, timeUnit)))
+                .then()
+                .onErrorResume(e -> {
+                    log.error("Redis multiSet 失败: size={}", values.size(), e);
+                    return Mono.empty();
+                })
+                .then(invalidateNear(values.keySet()));
+    }
+
+    // ======================== 数值操作 ========================
+
+    /**
+     * 递增
+     */
+    public Mono<Long> incr(String key) {
+        return incr(key, 1);
+    }
+
+    /**
+     * 递增指定值
+     */
+    public Mono<Long> incr(String key, long delta) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return redisTemplate.opsForValue().increment(key, delta)
+                .onErrorResume(e -> {
+                    log.error("Redis incr 失败: key={}", key, e);
+                    return Mono.just(0L);
+                })
+                .flatMap(result -> invalidateNear(Collections.singletonList(key)).thenReturn(result));
+    }
+
+    // ======================== Hash 操作 ========================
+
+    /**
+     * Hash设置
+     */
+    public Mono<Void> hSet(String key, String field, Object value) {
+        if (key == null || key.isEmpty() || field == null) {
+            return Mono.empty();
+        }
+        return redisTemplate.opsForHash().put(key, field, value)
+                .onErrorResume(e -> {
+                    log.error("Redis hSet 失败: key={}, field={}", key, field, e);
+                    return Mono.just(false);
+                })
+                .then(invalidateNear(Collections.singletonList(key)));
+    }
+
+    /**
+     * Hash获取
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> hGet(String key, String field) {
+        if (key == null || key.isEmpty() || field == null) {
+            return Mono.empty();
+        }
+        return redisTemplate.opsForHash().get(key, field)
+                .map(value -> (T) value)
+                .onErrorResume(e -> {
+                    log.error("Redis hGet 失败: key={}, field={}", key, field, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Hash获取所有
+     */
+    public Mono<Map<Object, Object>> hGetAll(String key) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return redisTemplate.opsForHash().entries(key)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new)
+                .onErrorResume(e -> {
+                    log.error("Redis hGetAll 失败: key={}", key, e);
+                    return Mono.just(Collections.emptyMap());
+                });
+    }
+
+    /**
+     * Hash批量获取字段（HMGET，一次往返）
+     *
+     * @return 字段到值的映射，只包含存在的字段
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<Map<String, T>> hMultiGet(String key, Collection<String> fields) {
+        if (key == null || key.isEmpty() || fields == null || fields.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        List<Object> hashKeys = new ArrayList<>(new LinkedHashSet<>(fields));
+        return redisTemplate.opsForHash().multiGet(key, hashKeys)
+                .map(values -> {
+                    Map<String, T> result = new LinkedHashMap<>(hashKeys.size() * 4 / 3 + 1);
+                    for (int i = 0; i < hashKeys.size() && i < values.size(); i++) {
+                        Object value = values.get(i);
+                        if (value != null) {
+                            result.put((String) hashKeys.get(i), (T) value);
+                        }
+                    }
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    log.error("Redis hMultiGet 失败: key={}", key, e);
+                    return Mono.just(Collections.emptyMap());
+                });
+    }
+
+    /**
+     * Hash删除字段
+     */
+    public Mono<Long> hDelete(String key, Object... fields) {
+        if (key == null || key.isEmpty() || fields == null) {
+            return Mono.just(0L);
+        }
+        return redisTemplate.opsForHash().remove(key, fields)
+                .onErrorResume(e -> {
+                    log.error("Redis hDelete 失败: key={}", key, e);
+                    return Mono.just(0L);
+                })
+                .flatMap(count -> invalidateNear(Collections.singletonList(key)).thenReturn(count));
+    }
+
+    // ======================== Set 操作 ========================
+
+    /**
+     * Set添加
+     */
+    public Mono<Long> sAdd(String key, Object... values) {
+        if (key == null || key.isEmpty() || values == null) {
+            return Mono.just(0L);
+        }
+        return redisTemplate.opsForSet().add(key, values)
+                .onErrorResume(e -> {
+                    log.error("Redis sAdd 失败: key={}", key, e);
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * Set获取所有成员
+     */
+    public Mono<Set<Object>> sMembers(String key) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(Collections.emptySet());
+        }
+        return redisTemplate.opsForSet().members(key)
+                .collect(LinkedHashSet::new, Set::add)
+                .map(members -> (Set<Object>) members)
+                .onErrorResume(e -> {
+                    log.error("Redis sMembers 失败: key={}", key, e);
+                    return Mono.just(Collections.emptySet());
+                });
+    }
+
+    /**
+     * Set判断是否包含
+     */
+    public Mono<Boolean> sIsMember(String key, Object value) {
+        if (key == null || key.isEmpty()) {
+            return Mono.just(false);
+        }
+        return redisTemplate.opsForSet().isMember(key, value)
+                .onErrorResume(e -> {
+                    log.error("Redis sIsMember 失败: key={}", key, e);
+                    return Mono.just(false);
+                });
+    }
+
+    // ======================== 辅助方法 ========================
+
+    /**
+     * 计算实际过期时间，空值使用 nullValueTtl，启用TTL打散时追加随机增量
+     */
+    private Duration ttl(String key, Object value, long timeout, TimeUnit unit) {
+        long millis = value != null ? unit.toMillis(timeout) : TimeUnit.SECONDS.toMillis(properties.getNullValueTtl());
+        return Duration.ofMillis(ttlJitter != null ? ttlJitter.apply(key, millis) : millis);
+    }
+
+    /**
+     * 失效本地副本，并通过响应式连接广播失效消息（不阻塞）
+     */
+    private Mono<Void> invalidateNear(Collection<String> keys) {
+        if (nearCache == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            byte[] payload = nearCache.invalidateForBroadcast(keys);
+            if (payload == null) {
+                return Mono.empty();
+            }
+            ByteBuffer channel = ByteBuffer.wrap(nearCache.getChannel());
+            return redisTemplate.execute(connection -> connection.pubSubCommands()
+                            .publish(channel, ByteBuffer.wrap(payload)))
+                    .then()
+                    .onErrorResume(e -> {
+                        log.error("广播本地缓存失效消息失败: keys={}", keys, e);
+                        return Mono.empty();
+                    });
+        });
+    }
+}
@@ -1,11 +1,48 @@
 package com.common.cache;
 
+import com.common.cache.bloom.RedisBloomFilter;
 import com.common.cache.config.CacheProperties;
+import com.common.cache.hotkey.HotKeyDetector;
+import com.common.cache.load.RefreshAheadPolicy;
+import com.common.cache.load.SingleFlight;
+import com.common.cache.local.NearCache;
+import com.common.cache.metrics.CacheMetrics;
+import com.common.cache.metrics.CacheMetricsContext;
+import com.common.cache.resilience.CircuitBreaker;
+import com.common.cache.script.LuaScript;
+import com.common.cache.script.LuaScriptRegistry;
+import com.common.cache.ttl.TtlJitter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Redis工具类
@@ -13,12 +50,204 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class RedisUtils {
 
+    private static final String TRACE_ID_KEY = "traceId";
+
+    /**
+     * 分块比主Key多保留的时间，避免读取清单后分块先过期
+     */
+    private static final long CHUNK_TTL_MARGIN_MILLIS = 60_000;
+
+    /**
+     * 覆盖或删除前读取旧值，只返回可能是分块清单的小String值，用于回收旧分块
+     */
+    private static final byte[] PEEK_MANIFEST_SCRIPT = ("if redis.call('type', KEYS[1]).ok == 'string' "
+            + "and redis.call('strlen', KEYS[1]) <= tonumber(ARGV[1]) then "
+            + "return redis.call('get', KEYS[1]) end; return false").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 分块清单序列化后的最大长度，超过的旧值一定不是清单
+     */
+    private static final byte[] MANIFEST_MAX_BYTES = "1024".getBytes(StandardCharsets.UTF_8);
+
+    private static final String RELEASE_LOCK_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private static final String GET_AND_EXPIRE_SCRIPT =
+            "local v = redis.call('get', KEYS[1]); "
+                    + "if v then redis.call('pexpire', KEYS[1], ARGV[1]) end; "
+                    + "return v";
+
+    private static final String SET_IF_VERSION_SCRIPT =
+            "local cur = tonumber(redis.call('get', KEYS[2]) or '0'); "
+                    + "if cur ~= tonumber(ARGV[1]) then return -1 end; "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]); "
+                    + "redis.call('set', KEYS[2], cur + 1, 'PX', ARGV[3]); "
+                    + "return cur + 1";
+
+    private static final String DELETE_IF_VERSION_SCRIPT =
+            "local ver = redis.call('get', KEYS[2]); "
+                    + "local cur = tonumber(ver or '0'); "
+                    + "if cur ~= tonumber(ARGV[1]) then return 0 end; "
+                    + "redis.call('del', KEYS[1]); "
+                    + "if ver then redis.call('incr', KEYS[2]) end; "
+                    + "return 1";
+
+    private static final String INCR_WITH_CAP_SCRIPT =
+            "local cur = tonumber(redis.call('get', KEYS[1]) or '0'); "
+                    + "local delta = tonumber(ARGV[1]); "
+                    + "if cur + delta > tonumber(ARGV[2]) then return false end; "
+                    + "local v = redis.call('incrby', KEYS[1], delta); "
+                    + "if tonumber(ARGV[3]) > 0 and redis.call('pttl', KEYS[1]) == -1 then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[3]) end; "
+                    + "return v";
+
+    private static final String VERSION_SUFFIX = ":ver";
+
+    /**
+     * 读取版本号失败时的返回值，与"不存在"（null）区分
+     */
+    private static final byte[] VERSION_UNAVAILABLE = new byte[0];
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final CacheProperties properties;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * Lua脚本注册表与内置脚本
+     */
+    private final LuaScriptRegistry scriptRegistry;
+    private final LuaScript releaseLockScript;
+    private final LuaScript getAndExpireScript;
+    private final LuaScript setIfVersionScript;
+    private final LuaScript deleteIfVersionScript;
+    private final LuaScript incrWithCapScript;
+
+    /**
+     * 本地一级缓存（可选）
+     */
+    private NearCache nearCache;
+
+    /**
+     * 提前刷新策略（可选）
+     */
+    private RefreshAheadPolicy refreshAheadPolicy;
+
+    /**
+     * TTL打散（可选）
+     */
+    private TtlJitter ttlJitter;
+
+    /**
+     * 缓存指标（未引入Micrometer时为空实现）
+     */
+    private CacheMetrics metrics = CacheMetrics.NOOP;
+
+    /**
+     * 熔断器（可选）
+     */
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * 热点Key探测（可选）
+     */
+    private HotKeyDetector hotKeyDetector;
+
+    /**
+     * 调用超时线程池与超时时间（可选）
+     */
+    private ExecutorService callExecutor;
+    private long callTimeoutMillis;
+
+    /**
+     * 慢命令阈值（纳秒），0表示不记录
+     */
+    private final long slowThresholdNanos;
+
+    /**
+     * 分块阈值（字节），0表示不分块
+     */
+    private final int chunkSize;
+
+    /**
+     * hGetAll/sMembers 元素数告警阈值，0表示不告警
+     */
+    private final int warnElements;
 
     public RedisUtils(RedisTemplate<String, Object> redisTemplate, CacheProperties properties) {
         this.redisTemplate = redisTemplate;
         this.properties = properties;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(
+                Math.max(properties.getMetrics().getSlowThreshold(), 0));
+        this.chunkSize = Math.max(properties.getBigValue().getChunkSize(), 0) * 1024;
+        this.warnElements = Math.max(properties.getBigValue().getWarnElements(), 0);
+        this.scriptRegistry = new LuaScriptRegistry(redisTemplate);
+        this.releaseLockScript = scriptRegistry.register("releaseLoadLock", RELEASE_LOCK_SCRIPT, ReturnType.INTEGER);
+        this.getAndExpireScript = scriptRegistry.register("getAndExpire", GET_AND_EXPIRE_SCRIPT, ReturnType.VALUE);
+        this.setIfVersionScript = scriptRegistry.register("setIfVersion", SET_IF_VERSION_SCRIPT,
+                ReturnType.INTEGER);
+        this.deleteIfVersionScript = scriptRegistry.register("deleteIfVersion", DELETE_IF_VERSION_SCRIPT,
+                ReturnType.INTEGER);
+        this.incrWithCapScript = scriptRegistry.register("incrWithCap", INCR_WITH_CAP_SCRIPT,
+                ReturnType.INTEGER);
+    }
+
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public void setRefreshAheadPolicy(RefreshAheadPolicy refreshAheadPolicy) {
+        this.refreshAheadPolicy = refreshAheadPolicy;
+    }
+
+    public void setTtlJitter(TtlJitter ttlJitter) {
+        this.ttlJitter = ttlJitter;
+    }
+
+    public TtlJitter getTtlJitter() {
+        return ttlJitter;
+    }
+
+    public void setMetrics(CacheMetrics metrics) {
+        this.metrics = metrics != null ? metrics : CacheMetrics.NOOP;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setHotKeyDetector(HotKeyDetector hotKeyDetector) {
+        this.hotKeyDetector = hotKeyDetector;
+    }
+
+    public HotKeyDetector getHotKeyDetector() {
+        return hotKeyDetector;
+    }
+
+    /**
+     * Lua脚本注册表，可注册自定义脚本
+     */
+    public LuaScriptRegistry getScriptRegistry() {
+        return scriptRegistry;
+    }
+
+    /**
+     * 设置单次调用超时：Redis命令提交到线程池执行，调用方最多等待 timeoutMillis
+     *
+     * @param executor      执行线程池，为null时不启用
+     * @param timeoutMillis 超时时间（毫秒），小于等于0时不启用
+     */
+    public void setCallTimeout(ExecutorService executor, long timeoutMillis) {
+        boolean enabled = executor != null && timeoutMillis > 0;
+        this.callExecutor = enabled ? executor : null;
+        this.callTimeoutMillis = enabled ? timeoutMillis : 0;
     }
 
     // ======================== String 操作 ========================
@@ -43,16 +272,30 @@ public class RedisUtils {
         if (timeout <= 0) {
             timeout = properties.getDefaultTtl();
         }
+        // 空值缓存，防止缓存穿透
+        Object stored = value != null ? value : NullValue.INSTANCE;
+        long ttlMillis = value != null
+                ? expireMillis(key, timeout, unit)
+                : expireMillis(key, properties.getNullValueTtl(), TimeUnit.SECONDS);
         try {
-            if (value == null) {
-                // 空值缓存，防止缓存穿透
-                redisTemplate.opsForValue().set(key, NullValue.INSTANCE,
-                        properties.getNullValueTtl(), TimeUnit.SECONDS);
+            if (chunkSize > 0) {
+                List<Object> results = executeWrite("set", key, () -> redisTemplate.executePipelined(
+                        (RedisCallback<Object>) connection -> {
+                            peekManifest(connection, key);
+                            writeValue(connection, key, stored, ttlMillis);
+                            return null;
+                        }, RedisSerializer.byteArray()), null);
+                if (results != null && !results.isEmpty()) {
+                    deleteStaleChunks(Collections.singletonMap(key, results.get(0)));
+                }
             } else {
-                redisTemplate.opsForValue().set(key, value, timeout, unit);
+                executeWrite("set", key, () -> {
+                    redisTemplate.opsForValue().set(key, stored, ttlMillis, TimeUnit.MILLISECONDS);
+                    return null;
+                }, null);
             }
-        } catch (Exception e) {
-            log.error("Redis set 失败: key={}", key, e);
+        } finally {
+            invalidateNear(key);
         }
     }
 
@@ -64,16 +307,11 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return null;
         }
-        try {
-            Object value = redisTemplate.opsForValue().get(key);
-            if (value instanceof NullValue) {
-                return null;
-            }
-            return (T) value;
-        } catch (Exception e) {
-            log.error("Redis get 失败: key={}", key, e);
+        Object value = getRaw(key);
+        if (value instanceof NullValue) {
             return null;
         }
+        return (T) value;
     }
 
     /**
@@ -90,6 +328,18 @@ public class RedisUtils {
         return null;
     }
 
+    /**
+     * 获取原始缓存值，命中空值占位时返回 {@link NullValue#INSTANCE}，用于区分"缓存了空值"与"未命中"
+     *
+     * @return 原始缓存值，未命中返回null
+     */
+    public Object getRawValue(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        return getRaw(key);
+    }
+
     /**
      * 删除缓存
      */
@@ -98,10 +348,12 @@ public class RedisUtils {
             return false;
         }
         try {
-            return Boolean.TRUE.equals(redisTemplate.delete(key));
-        } catch (Exception e) {
-            log.error("Redis delete 失败: key={}", key, e);
-            return false;
+            if (chunkSize > 0) {
+                return deleteChunked(Collections.singletonList(key)) > 0;
+            }
+            return executeWrite("delete", key, () -> Boolean.TRUE.equals(redisTemplate.delete(key)), false);
+        } finally {
+            invalidateNear(key);
         }
     }
 
@@ -113,12 +365,51 @@ public class RedisUtils {
             return 0;
         }
         try {
-            Long count = redisTemplate.delete(keys);
+            if (chunkSize > 0) {
+                return deleteChunked(keys);
+            }
+            Long count = executeBatchWrite("batchDelete", keys, () -> redisTemplate.delete(keys), 0L);
             return count != null ? count : 0;
-        } catch (Exception e) {
-            log.error("Redis batch delete 失败", e);
+        } finally {
+            invalidateNear(keys);
+        }
+    }
+
+    /**
+     * 分块模式下删除：每个Key先读取旧清单再删除，随后回收旧清单的分块
+     */
+    private long deleteChunked(Collection<String> keys) {
+        List<String> targets = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (key != null && !key.isEmpty()) {
+                targets.add(key);
+            }
+        }
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        List<Object> results = executeBatchWrite(targets.size() == 1 ? "delete" : "batchDelete", targets,
+                () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : targets) {
+                        peekManifest(connection, key);
+                        connection.keyCommands().del(key.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                }, RedisSerializer.byteArray()), null);
+        if (results == null || results.size() < targets.size() * 2) {
             return 0;
         }
+        long count = 0;
+        Map<String, Object> previous = new LinkedHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            previous.put(targets.get(i), results.get(i * 2));
+            Object deleted = results.get(i * 2 + 1);
+            if (deleted instanceof Number) {
+                count += ((Number) deleted).longValue();
+            }
+        }
+        deleteStaleChunks(previous);
+        return count;
     }
 
     /**
@@ -128,12 +419,7 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return false;
         }
-        try {
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
-        } catch (Exception e) {
-            log.error("Redis hasKey 失败: key={}", key, e);
-            return false;
-        }
+        return execute("hasKey", key, () -> Boolean.TRUE.equals(redisTemplate.hasKey(key)), false);
     }
 
     /**
@@ -143,12 +429,7 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return false;
         }
-        try {
-            return Boolean.TRUE.equals(redisTemplate.expire(key, timeout, unit));
-        } catch (Exception e) {
-            log.error("Redis expire 失败: key={}", key, e);
-            return false;
-        }
+        return executeWrite("expire", key, () -> Boolean.TRUE.equals(redisTemplate.expire(key, timeout, unit)), false);
     }
 
     /**
@@ -158,13 +439,224 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return -2;
         }
+        Long expire = execute("getExpire", key, () -> redisTemplate.getExpire(key, TimeUnit.SECONDS), -2L);
+        return expire != null ? expire : -2;
+    }
+
+    // ======================== 批量操作 ========================
+
+    /**
+     * 批量获取缓存（MGET，一次往返）
+     * <p>
+     * 返回结果只包含命中的Key；命中空值占位的Key对应的value为null（containsKey为true），
+     * 调用方据此区分"缓存了空值"与"未命中"。
+     *
+     * @param keys 缓存Key集合
+     * @return key到value的映射（按入参顺序）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> multiGet(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<String> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        distinct.remove("");
+        if (distinct.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, T> result = new LinkedHashMap<>(distinct.size() * 4 / 3 + 1);
+        List<String> remoteKeys = new ArrayList<>(distinct.size());
+        long[] stamps = new long[distinct.size()];
+        for (String key : distinct) {
+            if (nearCache != null && nearCache.isCacheable(key)) {
+                Object local = nearCache.get(key);
+                if (local != null) {
+                    metrics.recordGet(key, true);
+                    result.put(key, local instanceof NullValue ? null : (T) local);
+                    continue;
+                }
+                stamps[remoteKeys.size()] = nearCache.stamp(key);
+            }
+            remoteKeys.add(key);
+        }
+        if (remoteKeys.isEmpty()) {
+            return result;
+        }
+
+        List<Object> values = executeBatch("multiGet", remoteKeys,
+                () -> redisTemplate.opsForValue().multiGet(remoteKeys), null);
+        if (values == null) {
+            return result;
+        }
+        for (int i = 0; i < remoteKeys.size() && i < values.size(); i++) {
+            String key = remoteKeys.get(i);
+            Object value = resolveChunks(key, values.get(i));
+            metrics.recordGet(key, value != null);
+            if (value == null) {
+                continue;
+            }
+            if (nearCache != null) {
+                nearCache.put(key, value, stamps[i]);
+            }
+            result.put(key, value instanceof NullValue ? null : (T) value);
+        }
+        return result;
+    }
+
+    /**
+     * 批量设置缓存（使用默认过期时间）
+     */
+    public void multiSet(Map<String, ?> values) {
+        multiSet(values, properties.getDefaultTtl(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 批量设置缓存（管道方式，一次往返完成写入和过期时间设置）
+     * <p>
+     * value为null的Key写入空值占位，过期时间使用 nullValueTtl；启用TTL打散时每个Key单独打散。
+     */
+    public void multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        TimeUnit timeUnit = unit != null ? unit : TimeUnit.SECONDS;
+        long ttl = timeout > 0 ? timeout : timeUnit.convert(properties.getDefaultTtl(), TimeUnit.SECONDS);
+        if (chunkSize > 0) {
+            multiSetChunked(values, ttl, timeUnit);
+            return;
+        }
+        SessionCallback<Object> callback = new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (Map.Entry<String, ?> entry : values.entrySet()) {
+                    String key = entry.getKey();
+                    if (key == null || key.isEmpty()) {
+                        continue;
+                    }
+                    if (entry.getValue() == null) {
+                        ops.opsForValue().set(key, NullValue.INSTANCE,
+                                expireMillis(key, properties.getNullValueTtl(), TimeUnit.SECONDS),
+                                TimeUnit.MILLISECONDS);
+                    } else {
+                        ops.opsForValue().set(key, entry.getValue(),
+                                expireMillis(key, ttl, timeUnit), TimeUnit.MILLISECONDS);
+                    }
+                }
+                return null;
+            }
+        };
         try {
-            Long expire = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-            return expire != null ? expire : -2;
-        } catch (Exception e) {
-            log.error("Redis getExpire 失败: key={}", key, e);
-            return -2;
+            executeBatchWrite("multiSet", values.keySet(), () -> redisTemplate.executePipelined(callback), null);
+        } finally {
+            invalidateNear(values.keySet());
+        }
+    }
+
+    private void multiSetChunked(Map<String, ?> values, long ttl, TimeUnit timeUnit) {
+        // 每个Key的旧值在管道结果中的位置
+        Map<String, Integer> peeks = new LinkedHashMap<>();
+        try {
+            List<Object> results = executeBatchWrite("multiSet", values.keySet(), () -> redisTemplate.executePipelined(
+                    (RedisCallback<Object>) connection -> {
+                        int index = 0;
+                        for (Map.Entry<String, ?> entry : values.entrySet()) {
+                            String key = entry.getKey();
+                            if (key == null || key.isEmpty()) {
+                                continue;
+                            }
+                            peekManifest(connection, key);
+                            peeks.put(key, index++);
+                            if (entry.getValue() == null) {
+                                index += writeValue(connection, key, NullValue.INSTANCE,
+                                        expireMillis(key, properties.getNullValueTtl(), TimeUnit.SECONDS));
+                            } else {
+                                index += writeValue(connection, key, entry.getValue(),
+                                        expireMillis(key, ttl, timeUnit));
+                            }
+                        }
+                        return null;
+                    }, RedisSerializer.byteArray()), null);
+            if (results != null) {
+                Map<String, Object> previous = new LinkedHashMap<>();
+                for (Map.Entry<String, Integer> entry : peeks.entrySet()) {
+                    if (entry.getValue() < results.size()) {
+                        previous.put(entry.getKey(), results.get(entry.getValue()));
+                    }
+                }
+                deleteStaleChunks(previous);
+            }
+        } finally {
+            invalidateNear(values.keySet());
+        }
+    }
+
+    // ======================== Key 扫描 ========================
+
+    /**
+     * 按模式扫描Key（使用默认批量）
+     */
+    public Stream<String> scan(String pattern) {
+        return scan(pattern, properties.getScan().getBatchSize());
+    }
+
+    /**
+     * 按模式扫描Key（SCAN游标，不阻塞Redis）
+     * <p>
+     * 模式未以 keyPrefix 开头时自动补全，只扫描本应用的Key。返回的流持有连接，需在 try-with-resources 中使用；
+     * 扫描期间新增或删除的Key可能被遗漏或重复返回。
+     *
+     * @param pattern   匹配模式，如 {@code keyGenerator.pattern("user", tenantId)}
+     * @param batchSize 每次SCAN的COUNT
+     * @return Key流；Redis异常时返回空流
+     */
+    public Stream<String> scan(String pattern, int batchSize) {
+        ScanOptions options = scanOptions(scopedPattern(pattern), batchSize);
+        return cursorStream("scan", "pattern=" + options.getPattern(), () -> redisTemplate.scan(options));
+    }
+
+    /**
+     * 按模式批量删除Key（使用默认批量与间隔）
+     */
+    public long deleteByPattern(String pattern) {
+        CacheProperties.ScanProperties scan = properties.getScan();
+        return deleteByPattern(pattern, scan.getBatchSize(), scan.getDeletePause());
+    }
+
+    /**
+     * 按模式批量删除Key：SCAN收集一批后UNLINK（后台释放内存），批次之间暂停以限制对Redis的压力
+     * <p>
+     * 模式未以 keyPrefix 开头时自动补全，不允许删除其他应用的Key。
+     *
+     * @param pattern     匹配模式
+     * @param batchSize   每批删除的Key数
+     * @param pauseMillis 批次间暂停毫秒，小于等于0不暂停
+     * @return 删除的Key数
+     */
+    public long deleteByPattern(String pattern, int batchSize, long pauseMillis) {
+        int size = Math.max(batchSize, 1);
+        long deleted = 0;
+        List<String> batch = new ArrayList<>(size);
+        try (Stream<String> keys = scan(pattern, size)) {
+            Iterator<String> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= size) {
+                    deleted += unlink(batch);
+                    batch.clear();
+                    if (!pause(pauseMillis)) {
+                        return deleted;
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                deleted += unlink(batch);
+            }
         }
+        return deleted;
     }
 
     // ======================== 数值操作 ========================
@@ -184,11 +676,10 @@ public class RedisUtils {
             return 0;
         }
         try {
-            Long result = redisTemplate.opsForValue().increment(key, delta);
+            Long result = executeWrite("incr", key, () -> redisTemplate.opsForValue().increment(key, delta), 0L);
             return result != null ? result : 0;
-        } catch (Exception e) {
-            log.error("Redis incr 失败: key={}", key, e);
-            return 0;
+        } finally {
+            invalidateNear(key);
         }
     }
 
@@ -207,11 +698,10 @@ public class RedisUtils {
             return 0;
         }
         try {
-            Long result = redisTemplate.opsForValue().decrement(key, delta);
+            Long result = executeWrite("decr", key, () -> redisTemplate.opsForValue().decrement(key, delta), 0L);
             return result != null ? result : 0;
-        } catch (Exception e) {
-            log.error("Redis decr 失败: key={}", key, e);
-            return 0;
+        } finally {
+            invalidateNear(key);
         }
     }
 
@@ -225,9 +715,12 @@ public class RedisUtils {
             return;
         }
         try {
-            redisTemplate.opsForHash().put(key, field, value);
-        } catch (Exception e) {
-            log.error("Redis hSet 失败: key={}, field={}", key, field, e);
+            executeWrite("hSet", key, () -> {
+                redisTemplate.opsForHash().put(key, field, value);
+                return null;
+            }, null);
+        } finally {
+            invalidateNear(key);
         }
     }
 
@@ -239,12 +732,7 @@ public class RedisUtils {
         if (key == null || key.isEmpty() || field == null) {
             return null;
         }
-        try {
-            return (T) redisTemplate.opsForHash().get(key, field);
-        } catch (Exception e) {
-            log.error("Redis hGet 失败: key={}, field={}", key, field, e);
-            return null;
-        }
+        return (T) execute("hGet", key, () -> redisTemplate.opsForHash().get(key, field), null);
     }
 
     /**
@@ -255,10 +743,9 @@ public class RedisUtils {
             return 0;
         }
         try {
-            return redisTemplate.opsForHash().delete(key, fields);
-        } catch (Exception e) {
-            log.error("Redis hDelete 失败: key={}", key, e);
-            return 0;
+            return executeWrite("hDelete", key, () -> redisTemplate.opsForHash().delete(key, fields), 0L);
+        } finally {
+            invalidateNear(key);
         }
     }
 
@@ -269,12 +756,7 @@ public class RedisUtils {
         if (key == null || key.isEmpty() || field == null) {
             return false;
         }
-        try {
-            return redisTemplate.opsForHash().hasKey(key, field);
-        } catch (Exception e) {
-            log.error("Redis hHasKey 失败: key={}, field={}", key, field, e);
-            return false;
-        }
+        return execute("hHasKey", key, () -> redisTemplate.opsForHash().hasKey(key, field), false);
     }
 
     /**
@@ -284,12 +766,111 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return Collections.emptyMap();
         }
-        try {
-            return redisTemplate.opsForHash().entries(key);
-        } catch (Exception e) {
-            log.error("Redis hGetAll 失败: key={}", key, e);
+        Map<Object, Object> entries = execute("hGetAll", key, () -> redisTemplate.opsForHash().entries(key),
+                Collections.emptyMap());
+        warnIfBig("hGetAll", key, entries.size());
+        return entries;
+    }
+
+    /**
+     * Hash批量获取字段（HMGET，一次往返）
+     *
+     * @param key    Hash Key
+     * @param fields 字段集合
+     * @return 字段到值的映射，只包含存在的字段
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> hMultiGet(String key, Collection<String> fields) {
+        if (key == null || key.isEmpty() || fields == null || fields.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Object> hashKeys = new ArrayList<>(new LinkedHashSet<>(fields));
+        List<Object> values = execute("hMultiGet", key, () -> redisTemplate.opsForHash().multiGet(key, hashKeys), null);
+        if (values == null) {
             return Collections.emptyMap();
         }
+        Map<String, T> result = new LinkedHashMap<>(hashKeys.size() * 4 / 3 + 1);
+        for (int i = 0; i < hashKeys.size() && i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value != null) {
+                result.put((String) hashKeys.get(i), (T) value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hash批量设置字段（HMSET）
+     */
+    public void hSetAll(String key, Map<String, ?> values) {
+        if (key == null || key.isEmpty() || values == null || values.isEmpty()) {
+            return;
+        }
+        try {
+            executeWrite("hSetAll", key, () -> {
+                redisTemplate.opsForHash().putAll(key, values);
+                return null;
+            }, null);
+        } finally {
+            invalidateNear(key);
+        }
+    }
+
+    /**
+     * Hash批量设置字段并设置过期时间（管道方式，一次往返）
+     */
+    public void hSetAll(String key, Map<String, ?> values, long timeout, TimeUnit unit) {
+        if (key == null || key.isEmpty() || values == null || values.isEmpty()) {
+            return;
+        }
+        TimeUnit timeUnit = unit != null ? unit : TimeUnit.SECONDS;
+        long ttl = timeout > 0 ? timeout : timeUnit.convert(properties.getDefaultTtl(), TimeUnit.SECONDS);
+        try {
+            executeWrite("hSetAll", key, () -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.opsForHash().putAll(key, values);
+                    ops.expire(key, expireMillis(key, ttl, timeUnit), TimeUnit.MILLISECONDS);
+                    return null;
+                }
+            }), null);
+        } finally {
+            invalidateNear(key);
+        }
+    }
+
+    /**
+     * HSCAN分批遍历Hash，替代大Hash上的 {@link #hGetAll(String)}
+     *
+     * @see #hScan(String, String, int)
+     */
+    public <T> Stream<Map.Entry<String, T>> hScan(String key) {
+        return hScan(key, null, properties.getScan().getBatchSize());
+    }
+
+    /**
+     * HSCAN分批遍历Hash
+     * <p>
+     * 每次只取 batchSize 个字段，不会一次把整个Hash读入内存。返回的流持有连接，使用后必须关闭（try-with-resources）。
+     * 遍历期间修改的字段可能遗漏或重复返回。
+     *
+     * @param key          Hash Key
+     * @param fieldPattern 字段匹配模式，null表示全部
+     * @param batchSize    每次HSCAN的COUNT
+     * @return 字段与值的流；Redis异常时结束
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Stream<Map.Entry<String, T>> hScan(String key, String fieldPattern, int batchSize) {
+        if (key == null || key.isEmpty()) {
+            return Stream.empty();
+        }
+        ScanOptions options = scanOptions(fieldPattern, batchSize);
+        Stream<Map.Entry<Object, Object>> entries = cursorStream("hScan", "key=" + key,
+                () -> redisTemplate.opsForHash().scan(key, options));
+        return entries.map(entry -> new AbstractMap.SimpleImmutableEntry<>((String) entry.getKey(),
+                (T) entry.getValue()));
     }
 
     // ======================== Set 操作 ========================
@@ -301,13 +882,8 @@ public class RedisUtils {
         if (key == null || key.isEmpty() || values == null) {
             return 0;
         }
-        try {
-            Long count = redisTemplate.opsForSet().add(key, values);
-            return count != null ? count : 0;
-        } catch (Exception e) {
-            log.error("Redis sAdd 失败: key={}", key, e);
-            return 0;
-        }
+        Long count = executeWrite("sAdd", key, () -> redisTemplate.opsForSet().add(key, values), 0L);
+        return count != null ? count : 0;
     }
 
     /**
@@ -317,13 +893,41 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return Collections.emptySet();
         }
-        try {
-            Set<Object> members = redisTemplate.opsForSet().members(key);
-            return members != null ? members : Collections.emptySet();
-        } catch (Exception e) {
-            log.error("Redis sMembers 失败: key={}", key, e);
+        Set<Object> members = execute("sMembers", key, () -> redisTemplate.opsForSet().members(key), null);
+        if (members == null) {
             return Collections.emptySet();
         }
+        warnIfBig("sMembers", key, members.size());
+        return members;
+    }
+
+    /**
+     * SSCAN分批遍历Set，替代大Set上的 {@link #sMembers(String)}
+     *
+     * @see #sScan(String, int)
+     */
+    public <T> Stream<T> sScan(String key) {
+        return sScan(key, properties.getScan().getBatchSize());
+    }
+
+    /**
+     * SSCAN分批遍历Set
+     * <p>
+     * 返回的流持有连接，使用后必须关闭（try-with-resources）。遍历期间修改的成员可能遗漏或重复返回。
+     *
+     * @param key       Set Key
+     * @param batchSize 每次SSCAN的COUNT
+     * @return 成员流；Redis异常时结束
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> sScan(String key, int batchSize) {
+        if (key == null || key.isEmpty()) {
+            return Stream.empty();
+        }
+        ScanOptions options = scanOptions(null, batchSize);
+        Stream<Object> members = cursorStream("sScan", "key=" + key,
+                () -> redisTemplate.opsForSet().scan(key, options));
+        return members.map(member -> (T) member);
     }
 
     /**
@@ -333,20 +937,844 @@ public class RedisUtils {
         if (key == null || key.isEmpty()) {
             return false;
         }
-        try {
-            return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(key, value));
-        } catch (Exception e) {
-            log.error("Redis sIsMember 失败: key={}", key, e);
-            return false;
-        }
+        return execute("sIsMember", key,
+                () -> Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(key, value)), false);
+    }
+
+    // ======================== 原子脚本 ========================
+
+    /**
+     * 读取并续期（一次往返），适合滑动过期的会话类数据
+     * <p>
+     * 不经过本地缓存，保证每次读取都续期；命中空值占位时过期时间重置为 nullValueTtl。
+     *
+     * @return 缓存值，未命中或空值占位返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getAndExpire(String key, long timeout, TimeUnit unit) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        long ttlMillis = expireMillis(key, timeout > 0 ? timeout : properties.getDefaultTtl(),
+                timeout > 0 && unit != null ? unit : TimeUnit.SECONDS);
+        byte[] raw = execute("getAndExpire", key, () -> scriptRegistry.execute(getAndExpireScript,
+                Collections.singletonList(key), ttlMillis), null);
+        Object value = deserializeValue(key, raw);
+        if (value instanceof ChunkManifest) {
+            expireChunks(key, (ChunkManifest) value, ttlMillis);
+            value = resolveChunks(key, value);
+        }
+        metrics.recordGet(key, value != null);
+        if (value instanceof NullValue) {
+            expire(key, properties.getNullValueTtl(), TimeUnit.SECONDS);
+            return null;
+        }
+        return (T) value;
+    }
+
+    /**
+     * 获取版本号（保存在 {@code key:ver}，未写入过为0）
+     * <p>
+     * 乐观更新：先取版本号再读取值，修改后以该版本号调用 {@link #setIfVersion}；顺序不能颠倒。
+     *
+     * @return 版本号；Redis异常返回-1（随后的 setIfVersion 必然冲突）
+     */
+    public long getVersion(String key) {
+        if (key == null || key.isEmpty()) {
+            return -1;
+        }
+        byte[] rawKey = (key + VERSION_SUFFIX).getBytes(StandardCharsets.UTF_8);
+        byte[] raw = execute("getVersion", key, () -> redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(rawKey)), VERSION_UNAVAILABLE);
+        if (raw == VERSION_UNAVAILABLE) {
+            return -1;
+        }
+        return raw != null ? Long.parseLong(new String(raw, StandardCharsets.UTF_8)) : 0;
+    }
+
+    /**
+     * 版本号等于 expectedVersion 时写入并将版本号加1（一次往返，替代 WATCH/MULTI）
+     * <p>
+     * 值与版本号使用相同的过期时间；value为null时写入空值占位。值不分块，集群模式下Key需包含哈希标签，
+     * 使 {@code key} 与 {@code key:ver} 位于同一槽位。
+     *
+     * @return 写入后的版本号；版本冲突或Redis异常返回-1
+     */
+    public long setIfVersion(String key, Object value, long expectedVersion, long timeout, TimeUnit unit) {
+        if (key == null || key.isEmpty()) {
+            return -1;
+        }
+        Object stored = value != null ? value : NullValue.INSTANCE;
+        long ttlMillis = value != null
+                ? expireMillis(key, timeout > 0 ? timeout : properties.getDefaultTtl(),
+                timeout > 0 && unit != null ? unit : TimeUnit.SECONDS)
+                : expireMillis(key, properties.getNullValueTtl(), TimeUnit.SECONDS);
+        byte[] bytes = serializeValue(key, stored);
+        try {
+            Long version = executeWrite("setIfVersion", key, () -> scriptRegistry.execute(setIfVersionScript,
+                    Arrays.asList(key, key + VERSION_SUFFIX), expectedVersion, bytes, ttlMillis), -1L);
+            return version != null ? version : -1;
+        } finally {
+            invalidateNear(key);
+        }
+    }
+
+    /**
+     * 版本号等于 expectedVersion 时删除值并将版本号加1（INCR保留版本Key的过期时间；版本Key不存在时不创建）
+     *
+     * @return 是否删除；版本冲突或Redis异常返回false
+     */
+    public boolean deleteIfVersion(String key, long expectedVersion) {
+        if (key == null || key.isEmpty()) {
+            return false;
+        }
+        try {
+            Long deleted = executeWrite("deleteIfVersion", key, () -> scriptRegistry.execute(deleteIfVersionScript,
+                    Arrays.asList(key, key + VERSION_SUFFIX), expectedVersion), 0L);
+            return deleted != null && deleted > 0;
+        } finally {
+            invalidateNear(key);
+        }
+    }
+
+    /**
+     * 带上限的递增：递增后超过 cap 时不修改并返回null（一次往返）
+     * <p>
+     * Key首次创建时设置过期时间，之后的递增不改变过期时间，适合固定窗口配额。
+     *
+     * @param timeout 过期时间，小于等于0表示不过期
+     * @return 递增后的值；超过上限或Redis异常返回null
+     */
+    public Long incrWithCap(String key, long delta, long cap, long timeout, TimeUnit unit) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        long ttlMillis = timeout > 0 ? expireMillis(key, timeout, unit != null ? unit : TimeUnit.SECONDS) : 0;
+        try {
+            return executeWrite("incrWithCap", key, () -> scriptRegistry.execute(incrWithCapScript,
+                    Collections.singletonList(key), delta, cap, ttlMillis), null);
+        } finally {
+            invalidateNear(key);
+        }
+    }
+
+    // ======================== 缓存加载 ========================
+
+    /**
+     * 读取缓存，未命中时回源加载并写入缓存（使用默认过期时间）
+     */
+    public <T> T getOrLoad(String key, Supplier<T> loader) {
+        return getOrLoad(key, properties.getDefaultTtl(), TimeUnit.SECONDS, loader);
+    }
+
+    /**
+     * 读取缓存，未命中时回源加载并写入缓存
+     * <p>
+     * 本JVM内同一Key的并发未命中只会触发一次加载，其余线程等待同一结果；
+     * 开启 {@code common.cache.load.distributed-lock} 后，集群内同一Key只有抢到加载锁的节点回源，
+     * 其他节点短暂等待缓存回填。加载结果为null时写入空值占位；加载异常直接抛出，不写缓存。
+     * <p>
+     * Key命中提前刷新规则时，临近过期的读取会按概率触发异步回源，期间继续返回旧值。
+     *
+     * @param key     缓存Key
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @param loader  回源加载逻辑
+     * @return 缓存值或加载结果
+     */
+    public <T> T getOrLoad(String key, long timeout, TimeUnit unit, Supplier<T> loader) {
+        return getOrLoad(key, timeout, unit, true, loader);
+    }
+
+    /**
+     * 读取缓存，未命中时回源加载并写入缓存
+     *
+     * @param key       缓存Key
+     * @param timeout   过期时间
+     * @param unit      时间单位
+     * @param cacheNull 加载结果为null时是否写入空值占位
+     * @param loader    回源加载逻辑
+     * @return 缓存值或加载结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, long timeout, TimeUnit unit, boolean cacheNull, Supplier<T> loader) {
+        if (loader == null) {
+            throw new IllegalArgumentException("加载器不能为空");
+        }
+        if (key == null || key.isEmpty()) {
+            return loader.get();
+        }
+        RefreshAheadPolicy.Rule rule = refreshAheadPolicy != null ? refreshAheadPolicy.match(key) : null;
+        Object cached = rule != null ? getWithRefreshAhead(key, timeout, unit, cacheNull, loader, rule) : getRaw(key);
+        if (cached != null) {
+            return cached instanceof NullValue ? null : (T) cached;
+        }
+        return singleFlight.execute(key, () -> load(key, timeout, unit, cacheNull, loader));
+    }
+
+    /**
+     * 读取缓存，未命中时回源加载；先经布隆过滤器判断，一定不存在的元素直接返回null
+     * <p>
+     * 被过滤器拦截时既不访问Redis也不回源，也不写空值占位，适合防御随机ID遍历。
+     *
+     * @param key         缓存Key
+     * @param timeout     过期时间
+     * @param unit        时间单位
+     * @param bloomFilter 布隆过滤器
+     * @param element     过滤器中的元素（通常为业务ID）
+     * @param loader      回源加载逻辑
+     */
+    public <T> T getOrLoad(String key, long timeout, TimeUnit unit,
+                           RedisBloomFilter bloomFilter, String element, Supplier<T> loader) {
+        if (bloomFilter != null && element != null && !bloomFilter.mightContain(element)) {
+            return null;
+        }
+        return getOrLoad(key, timeout, unit, loader);
+    }
+
+    /**
+     * 一次往返读取值和剩余TTL，临近过期时按概率提交异步刷新
+     */
+    private Object getWithRefreshAhead(String key, long timeout, TimeUnit unit, boolean cacheNull,
+                                       Supplier<?> loader, RefreshAheadPolicy.Rule rule) {
+        // 本地缓存命中时不检查TTL，本地副本的存活时间本身很短
+        boolean near = nearCache != null && nearCache.isCacheable(key);
+        long stamp = 0;
+        if (near) {
+            Object local = nearCache.get(key);
+            if (local != null) {
+                metrics.recordGet(key, true);
+                return local;
+            }
+            stamp = nearCache.stamp(key);
+        }
+        Object pinned = getPinned(key);
+        if (pinned != null) {
+            return pinned;
+        }
+        SessionCallback<Object> callback = new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                ops.opsForValue().get(key);
+                ops.getExpire(key, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        };
+        List<Object> results = execute("getWithTtl", key,
+                () -> redisTemplate.executePipelined(callback), Collections.emptyList());
+        Object value = resolveChunks(key, results.size() > 0 ? results.get(0) : null);
+        Object ttl = results.size() > 1 ? results.get(1) : null;
+        metrics.recordGet(key, value != null);
+        if (hotKeyDetector != null) {
+            hotKeyDetector.onRead(key, value);
+        }
+        if (near && value != null) {
+            nearCache.put(key, value, stamp);
+        }
+        if (value != null && !(value instanceof NullValue) && ttl instanceof Long
+                && refreshAheadPolicy.shouldRefresh(rule, (Long) ttl)) {
+            refreshAheadPolicy.refreshAsync(key, () -> loadAndSet(key, timeout, unit, cacheNull, loader, rule));
+        }
+        return value;
+    }
+
+    private <T> T loadAndSet(String key, long timeout, TimeUnit unit, boolean cacheNull, Supplier<T> loader) {
+        RefreshAheadPolicy.Rule rule = refreshAheadPolicy != null ? refreshAheadPolicy.match(key) : null;
+        return loadAndSet(key, timeout, unit, cacheNull, loader, rule);
+    }
+
+    private <T> T loadAndSet(String key, long timeout, TimeUnit unit, boolean cacheNull, Supplier<T> loader,
+                             RefreshAheadPolicy.Rule rule) {
+        long start = System.currentTimeMillis();
+        T value = loader.get();
+        if (rule != null) {
+            rule.recordLoadTime(System.currentTimeMillis() - start);
+        }
+        if (value != null || cacheNull) {
+            set(key, value, timeout, unit);
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(String key, long timeout, TimeUnit unit, boolean cacheNull, Supplier<T> loader) {
+        // 双重检查：等待合并期间可能已被其他线程回填
+        Object cached = getRaw(key);
+        if (cached != null) {
+            return cached instanceof NullValue ? null : (T) cached;
+        }
+
+        CacheProperties.LoadProperties loadProps = properties.getLoad();
+        if (!loadProps.isDistributedLock()) {
+            return loadAndSet(key, timeout, unit, cacheNull, loader);
+        }
+
+        String lockKey = key + loadProps.getLockSuffix();
+        String token = UUID.randomUUID().toString();
+        if (tryLoadLock(lockKey, token, loadProps.getLockTtl())) {
+            try {
+                return loadAndSet(key, timeout, unit, cacheNull, loader);
+            } finally {
+                releaseLoadLock(lockKey, token);
+            }
+        }
+
+        // 其他节点正在加载，等待回填
+        long deadline = System.currentTimeMillis() + loadProps.getLockWait();
+        long interval = Math.max(loadProps.getRetryInterval(), 1);
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            cached = getRaw(key);
+            if (cached != null) {
+                return cached instanceof NullValue ? null : (T) cached;
+            }
+        }
+
+        log.warn("等待缓存回填超时，直接回源: key={}", key);
+        return loadAndSet(key, timeout, unit, cacheNull, loader);
+    }
+
+    private boolean tryLoadLock(String lockKey, String token, long ttlMillis) {
+        byte[] rawKey = lockKey.getBytes(StandardCharsets.UTF_8);
+        byte[] rawToken = token.getBytes(StandardCharsets.UTF_8);
+        // Redis异常时退化为本地加载
+        Boolean locked = execute("loadLock", lockKey, () -> redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.stringCommands().set(rawKey, rawToken,
+                        Expiration.milliseconds(Math.max(ttlMillis, 1)),
+                        RedisStringCommands.SetOption.SET_IF_ABSENT)), true);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    private void releaseLoadLock(String lockKey, String token) {
+        byte[] rawKey = lockKey.getBytes(StandardCharsets.UTF_8);
+        byte[] rawToken = token.getBytes(StandardCharsets.UTF_8);
+        executeWrite("loadUnlock", lockKey, () -> redisTemplate.execute((RedisCallback<Long>) connection ->
+                scriptRegistry.execute(connection, releaseLockScript, 1, rawKey, rawToken)), null);
+    }
+
+    /**
+     * 读取原始缓存值（空值占位原样返回），优先本地缓存
+     */
+    private Object getRaw(String key) {
+        boolean near = nearCache != null && nearCache.isCacheable(key);
+        long stamp = 0;
+        if (near) {
+            Object local = nearCache.get(key);
+            if (local != null) {
+                metrics.recordGet(key, true);
+                return local;
+            }
+            stamp = nearCache.stamp(key);
+        }
+        Object pinned = getPinned(key);
+        if (pinned != null) {
+            return pinned;
+        }
+        Object value = resolveChunks(key, execute("get", key, () -> redisTemplate.opsForValue().get(key), null));
+        metrics.recordGet(key, value != null);
+        if (hotKeyDetector != null) {
+            hotKeyDetector.onRead(key, value);
+        }
+        if (near && value != null) {
+            nearCache.put(key, value, stamp);
+        }
+        return value;
+    }
+
+    /**
+     * 计算实际过期时间（毫秒），启用TTL打散时追加随机增量
+     */
+    private long expireMillis(String key, long timeout, TimeUnit unit) {
+        long millis = unit.toMillis(timeout);
+        return ttlJitter != null ? ttlJitter.apply(key, millis) : millis;
+    }
+
+    /**
+     * 将扫描模式限定在本应用的Key前缀下
+     */
+    private static ScanOptions scanOptions(String pattern, int batchSize) {
+        ScanOptions.ScanOptionsBuilder builder = ScanOptions.scanOptions().count(Math.max(batchSize, 1));
+        if (pattern != null && !pattern.isEmpty()) {
+            builder.match(pattern);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 将游标包装为流：关闭流时关闭游标，遍历中Redis异常时记录日志并结束
+     */
+    private <E> Stream<E> cursorStream(String operation, String target, Supplier<Cursor<E>> opener) {
+        Cursor<E> cursor;
+        try {
+            cursor = opener.get();
+        } catch (Exception e) {
+            log.error("Redis {} 失败: {}", operation, target, e);
+            return Stream.empty();
+        }
+        Iterator<E> iterator = new Iterator<E>() {
+            private boolean failed;
+
+            @Override
+            public boolean hasNext() {
+                if (failed) {
+                    return false;
+                }
+                try {
+                    return cursor.hasNext();
+                } catch (Exception e) {
+                    failed = true;
+                    log.error("Redis {} 失败: {}", operation, target, e);
+                    return false;
+                }
+            }
+
+            @Override
+            public E next() {
+                return cursor.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    private void warnIfBig(String operation, String key, int size) {
+        if (warnElements > 0 && size > warnElements) {
+            log.warn("Redis 大Key读取: operation={}, key={}, size={}，建议改用 hScan/sScan 分批遍历",
+                    operation, key, size);
+        }
+    }
+
+    /**
+     * 写入String值：序列化后超过 chunkSize 时分块，主Key保存 {@link ChunkManifest}，
+     * 数据按 chunkSize 切分写入 {@code key:chunk:<id>:<序号>}。每次写入生成新id，旧分块由调用方通过
+     * {@link #peekManifest} 与 {@link #deleteStaleChunks} 回收。
+     * 分块先于清单写入（同一管道内按顺序执行），读取方看到新清单时分块已经存在。
+     *
+     * @return 加入管道的命令数
+     */
+    private int writeValue(RedisConnection connection, String key, Object value, long ttlMillis) {
+        byte[] bytes;
+        String previous = CacheMetricsContext.enter(key);
+        try {
+            bytes = valueSerializer().serialize(value);
+        } finally {
+            CacheMetricsContext.restore(previous);
+        }
+        byte[] rawKey = key.getBytes(StandardCharsets.UTF_8);
+        Expiration expiration = Expiration.milliseconds(Math.max(ttlMillis, 1));
+        if (bytes == null || bytes.length <= chunkSize) {
+            connection.stringCommands().set(rawKey, bytes, expiration, RedisStringCommands.SetOption.UPSERT);
+            return 1;
+        }
+        String id = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        int chunks = (bytes.length + chunkSize - 1) / chunkSize;
+        Expiration chunkExpiration = Expiration.milliseconds(Math.max(ttlMillis, 1) + CHUNK_TTL_MARGIN_MILLIS);
+        for (int i = 0; i < chunks; i++) {
+            int from = i * chunkSize;
+            byte[] chunk = Arrays.copyOfRange(bytes, from, Math.min(from + chunkSize, bytes.length));
+            connection.stringCommands().set(chunkKey(key, id, i), chunk, chunkExpiration,
+                    RedisStringCommands.SetOption.UPSERT);
+        }
+        byte[] manifest = valueSerializer().serialize(new ChunkManifest(id, chunks, bytes.length));
+        connection.stringCommands().set(rawKey, manifest, expiration, RedisStringCommands.SetOption.UPSERT);
+        return chunks + 1;
+    }
+
+    /**
+     * 在管道中读取即将被覆盖或删除的旧值（只返回足够小、可能是清单的String值）
+     * <p>
+     * 使用EVAL而不是EVALSHA：管道中NOSCRIPT要到提交时才返回，无法回退。
+     */
+    private void peekManifest(RedisConnection connection, String key) {
+        connection.scriptingCommands().eval(PEEK_MANIFEST_SCRIPT, ReturnType.VALUE, 1,
+                key.getBytes(StandardCharsets.UTF_8), MANIFEST_MAX_BYTES);
+    }
+
+    /**
+     * 旧值是分块清单时删除其分块；与本次写入并发的其他写入留下的分块仍随过期时间清理
+     *
+     * @param previous Key到 {@link #peekManifest} 读取到的原始旧值
+     */
+    private void deleteStaleChunks(Map<String, Object> previous) {
+        Map<String, ChunkManifest> stale = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : previous.entrySet()) {
+            if (entry.getValue() instanceof byte[]) {
+                Object value = deserializeValue(entry.getKey(), (byte[]) entry.getValue());
+                if (value instanceof ChunkManifest) {
+                    stale.put(entry.getKey(), (ChunkManifest) value);
+                }
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        executeBatchWrite("deleteChunks", stale.keySet(), () -> redisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    for (Map.Entry<String, ChunkManifest> entry : stale.entrySet()) {
+                        ChunkManifest manifest = entry.getValue();
+                        for (int i = 0; i < manifest.getChunks(); i++) {
+                            connection.keyCommands().unlink(chunkKey(entry.getKey(), manifest.getId(), i));
+                        }
+                    }
+                    return null;
+                }), null);
+    }
+
+    /**
+     * 读取到分块清单时，管道批量读取全部分块并还原；分块缺失或长度不符时按未命中处理
+     */
+    private Object resolveChunks(String key, Object value) {
+        if (!(value instanceof ChunkManifest)) {
+            return value;
+        }
+        ChunkManifest manifest = (ChunkManifest) value;
+        List<Object> chunks = execute("getChunks", key, () -> redisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    for (int i = 0; i < manifest.getChunks(); i++) {
+                        connection.stringCommands().get(chunkKey(key, manifest.getId(), i));
+                    }
+                    return null;
+                }, RedisSerializer.byteArray()), null);
+        if (chunks == null) {
+            return null;
+        }
+        byte[] bytes = new byte[manifest.getSize()];
+        int offset = 0;
+        for (Object chunk : chunks) {
+            byte[] part = (byte[]) chunk;
+            if (part == null || offset + part.length > bytes.length) {
+                log.warn("Redis 分块数据不完整: key={}, id={}", key, manifest.getId());
+                return null;
+            }
+            System.arraycopy(part, 0, bytes, offset, part.length);
+            offset += part.length;
+        }
+        if (offset != bytes.length) {
+            log.warn("Redis 分块数据不完整: key={}, id={}", key, manifest.getId());
+            return null;
+        }
+        String previous = CacheMetricsContext.enter(key);
+        try {
+            return valueSerializer().deserialize(bytes);
+        } catch (Exception e) {
+            log.error("Redis 分块数据反序列化失败: key={}", key, e);
+            return null;
+        } finally {
+            CacheMetricsContext.restore(previous);
+        }
+    }
+
+    /**
+     * 续期分块，保持分块比清单多存活 CHUNK_TTL_MARGIN_MILLIS
+     */
+    private void expireChunks(String key, ChunkManifest manifest, long ttlMillis) {
+        long chunkTtl = Math.max(ttlMillis, 1) + CHUNK_TTL_MARGIN_MILLIS;
+        executeWrite("expireChunks", key, () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < manifest.getChunks(); i++) {
+                connection.keyCommands().pExpire(chunkKey(key, manifest.getId(), i), chunkTtl);
+            }
+            return null;
+        }), null);
+    }
+
+    private byte[] serializeValue(String key, Object value) {
+        String previous = CacheMetricsContext.enter(key);
+        try {
+            return valueSerializer().serialize(value);
+        } finally {
+            CacheMetricsContext.restore(previous);
+        }
+    }
+
+    private Object deserializeValue(String key, byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        String previous = CacheMetricsContext.enter(key);
+        try {
+            return valueSerializer().deserialize(bytes);
+        } catch (Exception e) {
+            log.error("Redis 反序列化失败: key={}", key, e);
+            return null;
+        } finally {
+            CacheMetricsContext.restore(previous);
+        }
+    }
+
+    private static byte[] chunkKey(String key, String id, int index) {
+        return (key + ":chunk:" + id + ":" + index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Object> valueSerializer() {
+        return (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+    }
+
+    private String scopedPattern(String pattern) {
+        String prefix = properties.getKeyPrefix();
+        if (prefix == null || prefix.isEmpty()) {
+            return pattern == null || pattern.isEmpty() ? "*" : pattern;
+        }
+        String separator = properties.getKeySeparator() != null && !properties.getKeySeparator().isEmpty()
+                ? properties.getKeySeparator() : ":";
+        String scope = prefix + separator;
+        if (pattern == null || pattern.isEmpty()) {
+            return scope + "*";
+        }
+        return pattern.startsWith(scope) ? pattern : scope + pattern;
+    }
+
+    private long unlink(List<String> keys) {
+        try {
+            Long count = executeBatchWrite("unlink", keys, () -> redisTemplate.unlink(keys), 0L);
+            return count != null ? count : 0;
+        } finally {
+            invalidateNear(keys);
+        }
+    }
+
+    /**
+     * 批次间暂停，线程被中断时返回false
+     */
+    private boolean pause(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // ======================== 执行与指标 ========================
+
+    /**
+     * 执行Redis读命令：统一计时、记录指标与慢命令日志，异常时记录日志并返回降级值；熔断打开时不访问Redis直接返回降级值
+     *
+     * @param operation 操作名，作为指标标签
+     * @param key       缓存Key
+     * @param action    Redis命令
+     * @param fallback  异常时的返回值
+     */
+    private <T> T execute(String operation, String key, Supplier<T> action, T fallback) {
+        return execute(operation, key, key, action, fallback);
+    }
+
+    /**
+     * 执行批量Redis命令，指标与日志取第一个Key；各值可能属于不同模块，序列化大小不按Key归属
+     */
+    private <T> T executeBatch(String operation, Collection<String> keys, Supplier<T> action, T fallback) {
+        return execute(operation, firstKey(keys), null, action, fallback, false);
+    }
+
+    /**
+     * 执行写入、删除与失效广播：不受熔断拦截，熔断打开时仍访问Redis，避免更新数据库后的失效被静默跳过
+     */
+    private <T> T executeWrite(String operation, String key, Supplier<T> action, T fallback) {
+        return execute(operation, key, key, action, fallback, true);
+    }
+
+    /**
+     * 批量写入、删除与失效广播，同 {@link #executeWrite}
+     */
+    private <T> T executeBatchWrite(String operation, Collection<String> keys, Supplier<T> action, T fallback) {
+        return execute(operation, firstKey(keys), null, action, fallback, true);
+    }
+
+    private <T> T execute(String operation, String key, String contextKey, Supplier<T> action, T fallback) {
+        return execute(operation, key, contextKey, action, fallback, false);
+    }
+
+    /**
+     * @param write 是否为写操作：写操作绕过熔断，只在熔断关闭时计入统计，不占用半开状态的探测名额
+     */
+    private <T> T execute(String operation, String key, String contextKey, Supplier<T> action, T fallback,
+                          boolean write) {
+        CircuitBreaker breaker = circuitBreaker;
+        if (breaker != null && !write && !breaker.tryAcquire()) {
+            return fallback;
+        }
+        String previous = CacheMetricsContext.enter(contextKey);
+        long start = System.nanoTime();
+        boolean success = false;
+        boolean unavailable = false;
+        try {
+            T result = callExecutor != null ? executeWithTimeout(contextKey, action) : action.get();
+            success = true;
+            return result;
+        } catch (Exception e) {
+            unavailable = isUnavailable(e);
+            log.error("Redis {} 失败: key={}", operation, key, e);
+            return fallback;
+        } finally {
+            CacheMetricsContext.restore(previous);
+            long nanos = System.nanoTime() - start;
+            if (breaker != null && (!write || breaker.getState() == CircuitBreaker.State.CLOSED)) {
+                breaker.onResult(nanos, !unavailable);
+            }
+            metrics.recordOperation(operation, key, nanos, success);
+            if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+                log.warn("Redis 慢命令: operation={}, key={}, cost={}ms, traceId={}",
+                        operation, key, TimeUnit.NANOSECONDS.toMillis(nanos), MDC.get(TRACE_ID_KEY));
+            }
+        }
+    }
+
+    /**
+     * 在调用线程池中执行，超时后取消并抛出 {@link TimeoutException}；线程池已满时抛出拒绝异常，同样按失败降级
+     */
+    private <T> T executeWithTimeout(String contextKey, Supplier<T> action) throws Exception {
+        Future<T> future = callExecutor.submit(() -> {
+            String previous = CacheMetricsContext.enter(contextKey);
+            try {
+                return action.get();
+            } finally {
+                CacheMetricsContext.restore(previous);
+            }
+        });
+        try {
+            return future.get(callTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * 只有连接失败、超时与调用线程池拒绝计入熔断；序列化等异常只影响单个Key，与Redis是否可用无关
+     */
+    private static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof RedisConnectionFailureException || cause instanceof QueryTimeoutException
+                    || cause instanceof TimeoutException || cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstKey(Collection<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    // ======================== 本地缓存 ========================
+
+    /**
+     * 读取固定在本地的热点值，命中时计为缓存命中并计入热点采样
+     */
+    private Object getPinned(String key) {
+        if (hotKeyDetector == null) {
+            return null;
+        }
+        Object pinned = hotKeyDetector.getPinned(key);
+        if (pinned != null) {
+            metrics.recordGet(key, true);
+            hotKeyDetector.onPinnedRead(key);
+        }
+        return pinned;
+    }
+
+    private void invalidateNear(String key) {
+        if (nearCache != null || hotKeyDetector != null) {
+            invalidateNear(Collections.singletonList(key));
+        }
+    }
+
+    /**
+     * 失效本地副本（含固定的热点值）并广播，广播同样经过熔断与超时控制
+     */
+    private void invalidateNear(Collection<String> keys) {
+        if (hotKeyDetector != null) {
+            hotKeyDetector.invalidate(keys);
+        }
+        if (nearCache == null) {
+            return;
+        }
+        byte[] payload = nearCache.invalidateForBroadcast(keys);
+        if (payload != null) {
+            byte[] channel = nearCache.getChannel();
+            executeBatchWrite("publish", keys, () -> redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.publish(channel, payload)), null);
+        }
     }
 
     /**
      * 空值占位符（用于缓存穿透保护）
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class NullValue implements java.io.Serializable {
         private static final long serialVersionUID = 1L;
         public static final NullValue INSTANCE = new NullValue();
         private NullValue() {}
+
+        @JsonCreator
+        static NullValue of() {
+            return INSTANCE;
+        }
+
+        /**
+         * 供JSON序列化使用（空Bean无法序列化）
+         */
+        @JsonProperty("nil")
+        boolean isNil() {
+            return true;
+        }
+
+        private Object readResolve() {
+            return INSTANCE;
+        }
+    }
+
+    /**
+     * 分块存储清单，保存在主Key中
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class ChunkManifest implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+        private final int chunks;
+        private final int size;
+
+        @JsonCreator
+        ChunkManifest(@JsonProperty("id") String id, @JsonProperty("chunks") int chunks,
+                      @JsonProperty("size") int size) {
+            this.id = id;
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @JsonProperty("id")
+        public String getId() {
+            return id;
+        }
+
+        @JsonProperty("chunks")
+        public int getChunks() {
+            return chunks;
+        }
+
+        @JsonProperty("size")
+        public int getSize() {
+            return size;
+        }
     }
 }
@@ -0,0 +1,39 @@
+package com.common.cache.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 缓存清除注解
+ * <p>
+ * Key生成规则与 {@link Cached} 一致。批量模式下第一个参与生成Key的参数为ID集合，逐个清除。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheEvict {
+
+    /**
+     * 模块名
+     */
+    String module();
+
+    /**
+     * 业务键，为空时使用方法名
+     */
+    String key() default "";
+
+    /**
+     * 参与生成Key的参数下标，为空表示全部参数
+     */
+    int[] keyArgs() default {};
+
+    /**
+     * 是否在方法执行前清除（默认方法成功后清除）
+     */
+    boolean beforeInvocation() default false;
+
+    /**
+     * 是否批量模式：参与生成Key的第一个参数为ID集合，逐个ID替换集合后生成Key并清除（其余参与参数保持不变）
+     */
+    boolean batch() default false;
+}
@@ -0,0 +1,60 @@
+package com.common.cache.annotation;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法结果缓存注解
+ * <p>
+ * 缓存Key由 {@code CacheKeyGenerator.generateWithParams(module, key, 参数...)} 生成。
+ * 批量模式下方法第一个参数为ID集合、返回值为 {@code Map<ID, V>}，只对未命中的ID调用方法。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Cached {
+
+    /**
+     * 模块名
+     */
+    String module();
+
+    /**
+     * 业务键，为空时使用方法名
+     */
+    String key() default "";
+
+    /**
+     * 参与生成Key的参数下标，为空表示全部参数
+     * <p>
+     * 批量模式下须包含ID集合的下标0（为空时同样包含），每个ID的Key由该ID替换集合后的参与参数生成，
+     * 与单个调用生成的Key一致，如 {@code getPrices(ids, currency)} 按币种分别缓存
+     */
+    int[] keyArgs() default {};
+
+    /**
+     * 过期时间，小于等于0时使用默认过期时间
+     */
+    long ttl() default -1;
+
+    /**
+     * 过期时间单位
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * 结果为null时是否写入空值占位
+     */
+    boolean cacheNull() default true;
+
+    /**
+     * 是否合并同Key的并发加载（单飞），高并发热点Key建议开启
+     */
+    boolean sync() default false;
+
+    /**
+     * 是否批量模式：第一个参数为ID集合（声明为 Collection、List 或 Set），返回 Map&lt;ID, V&gt;
+     * （声明为 Map、HashMap、LinkedHashMap、SortedMap、TreeMap 或 ConcurrentMap），不符合时抛出 {@link IllegalStateException}
+     */
+    boolean batch() default false;
+}
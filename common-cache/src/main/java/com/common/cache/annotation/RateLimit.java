@@ -0,0 +1,69 @@
+package com.common.cache.annotation;
+
+import com.common.cache.limit.RateLimitAlgorithm;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方法限流注解，超过阈值时抛出 {@code BizException(429)}
+ * <p>
+ * 限流名称为 key[:参数...][:客户端IP]，同名方法共享同一配额。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 限流名称，为空时使用 类名.方法名
+     */
+    String key() default "";
+
+    /**
+     * 参与限流名称的参数下标（如用户ID），为空表示不区分参数
+     */
+    int[] keyArgs() default {};
+
+    /**
+     * 是否按客户端IP分别限流（需在Web请求线程中调用）
+     * <p>
+     * IP取自 {@code request.getRemoteAddr()}；反向代理之后需配置 {@code server.forward-headers-strategy}
+     */
+    boolean perIp() default false;
+
+    /**
+     * 每个窗口允许的请求数
+     */
+    long limit();
+
+    /**
+     * 窗口长度
+     */
+    long window() default 1;
+
+    /**
+     * 窗口时间单位
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * 限流算法
+     */
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.TOKEN_BUCKET;
+
+    /**
+     * 每次调用消耗的许可数
+     */
+    int permits() default 1;
+
+    /**
+     * 本地预取批量，大于1时减少Redis访问，代价是各节点间配额分配不完全均匀
+     */
+    int localBatch() default 1;
+
+    /**
+     * 被限流时的提示信息
+     */
+    String message() default "请求过于频繁，请稍后再试";
+}
@@ -0,0 +1,304 @@
+package com.common.cache.aspect;
+
+import com.common.cache.CacheKeyGenerator;
+import com.common.cache.RedisUtils;
+import com.common.cache.annotation.CacheEvict;
+import com.common.cache.annotation.Cached;
+import com.common.cache.config.CacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * 注解式缓存切面
+ */
+@Slf4j
+@Aspect
+public class CacheAspect {
+
+    private final RedisUtils redisUtils;
+    private final CacheKeyGenerator keyGenerator;
+    private final CacheProperties properties;
+
+    /**
+     * 批量模式的方法签名校验结果，每个方法只解析一次
+     */
+    private final ConcurrentMap<Method, BatchSignature> batchSignatures = new ConcurrentHashMap<>();
+
+    public CacheAspect(RedisUtils redisUtils, CacheKeyGenerator keyGenerator, CacheProperties properties) {
+        this.redisUtils = redisUtils;
+        this.keyGenerator = keyGenerator;
+        this.properties = properties;
+    }
+
+    @Around("@annotation(com.common.cache.annotation.Cached)")
+    public Object aroundCached(ProceedingJoinPoint point) throws Throwable {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Cached cached = findAnnotation(point, method, Cached.class);
+        if (cached == null) {
+            return point.proceed();
+        }
+
+        long ttl = cached.ttl() > 0 ? cached.ttl() : cached.timeUnit().convert(properties.getDefaultTtl(), TimeUnit.SECONDS);
+        if (cached.batch()) {
+            return batchCached(point, method, cached, ttl);
+        }
+
+        String key = buildKey(cached.module(), cached.key(), cached.keyArgs(), method, point.getArgs());
+        boolean primitive = method.getReturnType().isPrimitive();
+        if (cached.sync()) {
+            Object value;
+            try {
+                value = redisUtils.getOrLoad(key, ttl, cached.timeUnit(), cached.cacheNull(), () -> proceed(point));
+            } catch (ProceedException e) {
+                throw e.getCause();
+            }
+            if (value != null || !primitive) {
+                return value;
+            }
+            // 命中空值占位，而基本类型返回值不能为null：按未命中处理并覆盖
+        } else {
+            Object value = redisUtils.getRawValue(key);
+            if (value != null && !(value instanceof RedisUtils.NullValue)) {
+                return value;
+            }
+            if (value != null && !primitive) {
+                return null;
+            }
+        }
+        Object result = point.proceed();
+        if (result != null || cached.cacheNull()) {
+            redisUtils.set(key, result, ttl, cached.timeUnit());
+        }
+        return result;
+    }
+
+    @Around("@annotation(com.common.cache.annotation.CacheEvict)")
+    public Object aroundEvict(ProceedingJoinPoint point) throws Throwable {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        CacheEvict evict = findAnnotation(point, method, CacheEvict.class);
+        if (evict == null) {
+            return point.proceed();
+        }
+
+        List<String> keys = evict.batch()
+                ? buildBatchKeys(evict.module(), evict.key(), evict.keyArgs(), method, point.getArgs())
+                : Collections.singletonList(buildKey(evict.module(), evict.key(), evict.keyArgs(), method, point.getArgs()));
+        if (evict.beforeInvocation()) {
+            redisUtils.delete(keys);
+            return point.proceed();
+        }
+        Object result = point.proceed();
+        redisUtils.delete(keys);
+        return result;
+    }
+
+    /**
+     * 批量模式：只对未命中的ID调用方法，结果合并返回
+     */
+    @SuppressWarnings("unchecked")
+    private Object batchCached(ProceedingJoinPoint point, Method method, Cached cached, long ttl) throws Throwable {
+        BatchSignature signature = batchSignatures.computeIfAbsent(method,
+                m -> BatchSignature.resolve(m, cached.keyArgs()));
+        Object[] args = point.getArgs();
+        if (args[0] == null) {
+            return point.proceed();
+        }
+        Map<Object, String> idToKey = batchKeys(cached.module(), bizKey(cached.key(), method),
+                selectArgs(cached.keyArgs(), args), signature.idPosition);
+
+        Map<String, Object> hits = redisUtils.multiGet(idToKey.values());
+        Map<Object, Object> result = signature.resultFactory.apply(idToKey.size());
+        List<Object> missIds = new ArrayList<>();
+        for (Map.Entry<Object, String> entry : idToKey.entrySet()) {
+            if (hits.containsKey(entry.getValue())) {
+                Object value = hits.get(entry.getValue());
+                if (value != null) {
+                    result.put(entry.getKey(), value);
+                }
+            } else {
+                missIds.add(entry.getKey());
+            }
+        }
+        if (missIds.isEmpty()) {
+            return result;
+        }
+
+        Object[] missArgs = args.clone();
+        missArgs[0] = signature.setArgument ? new LinkedHashSet<>(missIds) : missIds;
+        Map<Object, Object> loaded = (Map<Object, Object>) point.proceed(missArgs);
+
+        Map<String, Object> toCache = new LinkedHashMap<>(missIds.size() * 4 / 3 + 1);
+        for (Object id : missIds) {
+            Object value = loaded != null ? loaded.get(id) : null;
+            if (value != null) {
+                result.put(id, value);
+                toCache.put(idToKey.get(id), value);
+            } else if (cached.cacheNull()) {
+                toCache.put(idToKey.get(id), null);
+            }
+        }
+        redisUtils.multiSet(toCache, ttl, cached.timeUnit());
+        return result;
+    }
+
+    private String buildKey(String module, String key, int[] keyArgs, Method method, Object[] args) {
+        Object[] params = selectArgs(keyArgs, args);
+        return params.length == 0
+                ? keyGenerator.generate(module, bizKey(key, method))
+                : keyGenerator.generateWithParams(module, bizKey(key, method), params);
+    }
+
+    private List<String> buildBatchKeys(String module, String key, int[] keyArgs, Method method, Object[] args) {
+        Object[] params = selectArgs(keyArgs, args);
+        if (params.length == 0 || !(params[0] instanceof Collection)) {
+            throw new IllegalStateException("@CacheEvict(batch = true) 要求参与生成Key的第一个参数为集合: " + method);
+        }
+        return new ArrayList<>(batchKeys(module, bizKey(key, method), params, 0).values());
+    }
+
+    /**
+     * 批量模式的逐个Key：参与生成Key的参数中，ID集合所在位置依次替换为每个ID，其余参数保持不变，
+     * 与单个调用 {@code method(id, 其他参数...)} 生成的Key一致
+     *
+     * @param params     参与生成Key的参数
+     * @param idPosition ID集合在params中的位置
+     * @return ID到Key的映射（按集合顺序，忽略null）
+     */
+    private Map<Object, String> batchKeys(String module, String bizKey, Object[] params, int idPosition) {
+        Collection<?> ids = (Collection<?>) params[idPosition];
+        Object[] keyParams = params.clone();
+        Map<Object, String> idToKey = new LinkedHashMap<>(ids.size() * 4 / 3 + 1);
+        for (Object id : ids) {
+            if (id != null) {
+                keyParams[idPosition] = id;
+                idToKey.put(id, keyGenerator.generateWithParams(module, bizKey, keyParams));
+            }
+        }
+        return idToKey;
+    }
+
+    private Object[] selectArgs(int[] keyArgs, Object[] args) {
+        if (args == null) {
+            return new Object[0];
+        }
+        if (keyArgs == null || keyArgs.length == 0) {
+            return args;
+        }
+        Object[] selected = new Object[keyArgs.length];
+        for (int i = 0; i < keyArgs.length; i++) {
+            int index = keyArgs[i];
+            if (index < 0 || index >= args.length) {
+                throw new IllegalStateException("缓存Key参数下标越界: " + index);
+            }
+            selected[i] = args[index];
+        }
+        return selected;
+    }
+
+    private String bizKey(String key, Method method) {
+        return key == null || key.isEmpty() ? method.getName() : key;
+    }
+
+    private <A extends Annotation> A findAnnotation(ProceedingJoinPoint point, Method method, Class<A> type) {
+        A annotation = AnnotationUtils.findAnnotation(method, type);
+        if (annotation == null) {
+            // 尝试从目标类方法获取（接口代理场景）
+            try {
+                Method targetMethod = point.getTarget().getClass()
+                        .getMethod(method.getName(), method.getParameterTypes());
+                annotation = AnnotationUtils.findAnnotation(targetMethod, type);
+            } catch (NoSuchMethodException e) {
+                log.warn("无法获取@{}注解", type.getSimpleName());
+            }
+        }
+        return annotation;
+    }
+
+    private static Object proceed(ProceedingJoinPoint point) {
+        try {
+            return point.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ProceedException(e);
+        }
+    }
+
+    /**
+     * 批量模式的方法签名：第一个参数可接收 List 或 Set，返回值可接收库内构造的Map
+     */
+    private static final class BatchSignature {
+        final boolean setArgument;
+        final int idPosition;
+        final IntFunction<Map<Object, Object>> resultFactory;
+
+        private BatchSignature(boolean setArgument, int idPosition, IntFunction<Map<Object, Object>> resultFactory) {
+            this.setArgument = setArgument;
+            this.idPosition = idPosition;
+            this.resultFactory = resultFactory;
+        }
+
+        static BatchSignature resolve(Method method, int[] keyArgs) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 0 || !Collection.class.isAssignableFrom(parameterTypes[0])) {
+                throw new IllegalStateException("@Cached(batch = true) 要求第一个参数为集合: " + method);
+            }
+            // ID集合（第0个参数）必须参与生成Key，其余参与的参数原样拼入每个ID的Key
+            int idPosition = keyArgs.length == 0 ? 0 : -1;
+            for (int i = 0; i < keyArgs.length; i++) {
+                if (keyArgs[i] == 0) {
+                    idPosition = i;
+                    break;
+                }
+            }
+            if (idPosition < 0) {
+                throw new IllegalStateException("@Cached(batch = true) 的 keyArgs 须包含ID集合参数下标0: " + method);
+            }
+            boolean setArgument;
+            if (parameterTypes[0].isAssignableFrom(ArrayList.class)) {
+                setArgument = false;
+            } else if (parameterTypes[0].isAssignableFrom(LinkedHashSet.class)) {
+                setArgument = true;
+            } else {
+                throw new IllegalStateException("@Cached(batch = true) 第一个参数须声明为 Collection、List 或 Set: "
+                        + method);
+            }
+            Class<?> returnType = method.getReturnType();
+            IntFunction<Map<Object, Object>> resultFactory;
+            if (returnType.isAssignableFrom(LinkedHashMap.class)) {
+                resultFactory = size -> new LinkedHashMap<>(size * 4 / 3 + 1);
+            } else if (returnType.isAssignableFrom(TreeMap.class)) {
+                resultFactory = size -> new TreeMap<>();
+            } else if (returnType.isAssignableFrom(ConcurrentHashMap.class)) {
+                resultFactory = size -> new ConcurrentHashMap<>(size * 4 / 3 + 1);
+            } else {
+                throw new IllegalStateException("@Cached(batch = true) 返回值须声明为 Map、HashMap、LinkedHashMap、"
+                        + "SortedMap、TreeMap 或 ConcurrentMap: " + method);
+            }
+            return new BatchSignature(setArgument, idPosition, resultFactory);
+        }
+    }
+
+    /**
+     * 在加载器中传递受检异常
+     */
+    private static class ProceedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ProceedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
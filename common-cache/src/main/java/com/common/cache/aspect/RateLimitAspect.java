@@ -0,0 +1,114 @@
+package com.common.cache.aspect;
+
+import com.common.cache.annotation.RateLimit;
+import com.common.cache.limit.RateLimitRule;
+import com.common.cache.limit.RateLimiter;
+import com.common.core.exception.BizException;
+import com.common.core.result.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 注解式限流切面
+ */
+@Slf4j
+@Aspect
+public class RateLimitAspect {
+
+    private static final boolean WEB_PRESENT = ClassUtils.isPresent(
+            "org.springframework.web.context.request.RequestContextHolder", RateLimitAspect.class.getClassLoader());
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * 方法 -> 限流规则，避免每次调用重复解析注解
+     */
+    private final ConcurrentHashMap<Method, RateLimitRule> rules = new ConcurrentHashMap<>();
+
+    public RateLimitAspect(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Around("@annotation(com.common.cache.annotation.RateLimit)")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        RateLimit rateLimit = findAnnotation(point, method);
+        if (rateLimit == null) {
+            return point.proceed();
+        }
+
+        RateLimitRule rule = rules.computeIfAbsent(method, m -> new RateLimitRule(rateLimit.algorithm(),
+                rateLimit.limit(), rateLimit.window(), rateLimit.timeUnit(), rateLimit.localBatch()));
+        String name = buildName(rateLimit, method, point.getArgs());
+        if (!rateLimiter.tryAcquire(name, rule, rateLimit.permits())) {
+            log.warn("触发限流: name={}", name);
+            throw new BizException(ResultCode.TOO_MANY_REQUESTS, rateLimit.message());
+        }
+        return point.proceed();
+    }
+
+    private String buildName(RateLimit rateLimit, Method method, Object[] args) {
+        StringBuilder sb = new StringBuilder();
+        if (rateLimit.key().isEmpty()) {
+            sb.append(method.getDeclaringClass().getSimpleName()).append('.').append(method.getName());
+        } else {
+            sb.append(rateLimit.key());
+        }
+        for (int index : rateLimit.keyArgs()) {
+            if (args == null || index < 0 || index >= args.length) {
+                throw new IllegalStateException("限流参数下标越界: " + index);
+            }
+            sb.append(':').append(args[index]);
+        }
+        if (rateLimit.perIp()) {
+            sb.append(':').append(WEB_PRESENT ? ClientIp.current() : "unknown");
+        }
+        return sb.toString();
+    }
+
+    private RateLimit findAnnotation(ProceedingJoinPoint point, Method method) {
+        RateLimit annotation = AnnotationUtils.findAnnotation(method, RateLimit.class);
+        if (annotation == null) {
+            // 尝试从目标类方法获取（接口代理场景）
+            try {
+                Method targetMethod = point.getTarget().getClass()
+                        .getMethod(method.getName(), method.getParameterTypes());
+                annotation = AnnotationUtils.findAnnotation(targetMethod, RateLimit.class);
+            } catch (NoSuchMethodException e) {
+                log.warn("无法获取@RateLimit注解");
+            }
+        }
+        return annotation;
+    }
+
+    /**
+     * 客户端IP解析（隔离Web依赖，未引入spring-web时不加载）
+     * <p>
+     * 只使用 {@code getRemoteAddr()}，不直接读取可被客户端伪造的 X-Forwarded-For / X-Real-IP；
+     * 部署在反向代理之后时配置 {@code server.forward-headers-strategy}，由容器按可信代理解析真实IP。
+     */
+    private static final class ClientIp {
+
+        static String current() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (!(attributes instanceof ServletRequestAttributes)) {
+                return "unknown";
+            }
+            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+            String ip = request.getRemoteAddr();
+            return ip != null ? ip : "unknown";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.common.cache.bloom;
+
+import com.common.cache.CacheKeyGenerator;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 布隆过滤器工厂，按名称复用实例
+ */
+public class BloomFilterFactory {
+
+    private static final String MODULE = "bloom";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheKeyGenerator keyGenerator;
+    private final int batchSize;
+    private final boolean localCopy;
+    private final ConcurrentMap<String, RedisBloomFilter> filters = new ConcurrentHashMap<>();
+
+    public BloomFilterFactory(RedisTemplate<String, Object> redisTemplate, CacheKeyGenerator keyGenerator,
+                              int batchSize, boolean localCopy) {
+        this.redisTemplate = redisTemplate;
+        this.keyGenerator = keyGenerator;
+        this.batchSize = batchSize;
+        this.localCopy = localCopy;
+    }
+
+    /**
+     * 获取或创建布隆过滤器
+     *
+     * @param name               过滤器名称
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                期望误判率（0~1）
+     * @return 布隆过滤器；同名过滤器只在首次调用时按参数创建
+     */
+    public RedisBloomFilter getOrCreate(String name, long expectedInsertions, double fpp) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("布隆过滤器名称不能为空");
+        }
+        // 哈希标签保证重建用的临时Key与正式Key落在同一槽位
+        return filters.computeIfAbsent(name, n -> new RedisBloomFilter(redisTemplate,
+                keyGenerator.generate(MODULE, "{" + n + "}"), expectedInsertions, fpp, batchSize, localCopy));
+    }
+
+    /**
+     * 获取已创建的布隆过滤器
+     *
+     * @return 不存在时返回null
+     */
+    public RedisBloomFilter get(String name) {
+        return name != null ? filters.get(name) : null;
+    }
+}
@@ -0,0 +1,474 @@
+package com.common.cache.bloom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 基于Redis位图的分布式布隆过滤器
+ * <p>
+ * 位图存放在Redis中供集群共享，写入和查询都以管道批量执行 SETBIT / GETBIT。
+ * 可选维护一份本地只增不减的位图副本：本地已置位的位无需再查Redis，查询结果为"可能存在"时直接返回。
+ * 同名过滤器在各节点必须使用相同的容量和误判率参数。
+ * <p>
+ * 写入失败会抛出异常而不是忽略：漏写的位会让已存在的元素被判定为不存在（假阴性），
+ * 调用方需要重试或安排重建。
+ * <p>
+ * 重建期间临时Key存在时，任意节点的 {@code put} 同时写入临时Key，替换后不会丢失。
+ * 集群模式下Key须包含哈希标签（如 {@code app:bloom:{user}}），使临时Key与正式Key位于同一槽位。
+ */
+@Slf4j
+public class RedisBloomFilter {
+
+    /**
+     * Redis单个字符串最大 512MB，即 2^32 位
+     */
+    private static final long MAX_BITS = 1L << 32;
+
+    private static final String BUILDING_SUFFIX = ":building";
+
+    /**
+     * 临时Key的存活时间，每批写入时续期；构建进程崩溃后自动清理，之后的 put 不再双写
+     */
+    private static final long BUILDING_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * 置位：写入正式Key，临时Key存在（重建中）时同时写入，与替换脚本互斥
+     */
+    private static final byte[] PUT_SCRIPT = ("for i = 1, #ARGV do redis.call('setbit', KEYS[1], ARGV[i], 1) end; "
+            + "if redis.call('exists', KEYS[2]) == 1 then "
+            + "for i = 1, #ARGV do redis.call('setbit', KEYS[2], ARGV[i], 1) end end; "
+            + "return 1").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 替换：临时Key仍存在时改名为正式Key并去掉过期时间，临时Key已过期返回0
+     */
+    private static final byte[] SWAP_SCRIPT = ("if redis.call('exists', KEYS[1]) == 0 then return 0 end; "
+            + "redis.call('rename', KEYS[1], KEYS[2]); "
+            + "redis.call('persist', KEYS[2]); "
+            + "return 1").getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String key;
+    private final byte[] rawKey;
+    private final String buildingKey;
+    private final byte[] rawBuildingKey;
+    private final long numBits;
+    private final int numHashFunctions;
+    private final int batchSize;
+    private final AtomicLongArray localBits;
+
+    /**
+     * @param redisTemplate      RedisTemplate
+     * @param key                位图Key
+     * @param expectedInsertions 预期元素数量
+     * @param fpp                期望误判率（0~1）
+     * @param batchSize          管道批量大小（元素个数）
+     * @param localCopy          是否维护本地位图副本
+     */
+    public RedisBloomFilter(RedisTemplate<String, Object> redisTemplate, String key,
+                            long expectedInsertions, double fpp, int batchSize, boolean localCopy) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("布隆过滤器Key不能为空");
+        }
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("预期元素数量必须大于0");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("误判率必须在0到1之间");
+        }
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+        this.rawKey = key.getBytes(StandardCharsets.UTF_8);
+        this.buildingKey = key + BUILDING_SUFFIX;
+        this.rawBuildingKey = buildingKey.getBytes(StandardCharsets.UTF_8);
+        this.numBits = Math.min(optimalNumOfBits(expectedInsertions, fpp), MAX_BITS);
+        this.numHashFunctions = optimalNumOfHashFunctions(expectedInsertions, numBits);
+        this.batchSize = batchSize > 0 ? batchSize : 500;
+        this.localBits = localCopy ? new AtomicLongArray((int) ((numBits + 63) >>> 6)) : null;
+    }
+
+    /**
+     * 根据预期数量和误判率计算位图大小：m = -n * ln(p) / (ln2)^2
+     */
+    public static long optimalNumOfBits(long expectedInsertions, double fpp) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    }
+
+    /**
+     * 计算哈希函数个数：k = m / n * ln2
+     */
+    public static int optimalNumOfHashFunctions(long expectedInsertions, long numBits) {
+        return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 添加元素
+     *
+     * @throws IllegalStateException Redis写入失败
+     */
+    public void put(String element) {
+        if (element == null) {
+            return;
+        }
+        putAll(Collections.singletonList(element));
+    }
+
+    /**
+     * 批量添加元素（按批次管道写入）；全部写入Redis后才更新本地副本
+     *
+     * @throws IllegalStateException Redis写入失败（之前的批次可能已写入，重试是安全的）
+     */
+    public void putAll(Collection<String> elements) {
+        if (elements == null || elements.isEmpty()) {
+            return;
+        }
+        try {
+            writeBits(elements, false);
+        } catch (Exception e) {
+            log.error("布隆过滤器写入失败: key={}, size={}", key, elements.size(), e);
+            throw new IllegalStateException("布隆过滤器写入失败: " + key, e);
+        }
+        if (localBits != null) {
+            for (String element : elements) {
+                if (element != null) {
+                    for (long offset : offsets(element)) {
+                        setLocal(offset);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 判断元素是否可能存在
+     * <p>
+     * 返回false表示一定不存在；Redis异常时返回true（放行到后续缓存/数据库查询）。
+     */
+    public boolean mightContain(String element) {
+        if (element == null) {
+            return false;
+        }
+        long[] offsets = offsets(element);
+        if (localBits != null && allSetLocally(offsets)) {
+            return true;
+        }
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (long offset : offsets) {
+                    connection.stringCommands().getBit(rawKey, offset);
+                }
+                return null;
+            });
+            for (Object result : results) {
+                if (!Boolean.TRUE.equals(result)) {
+                    return false;
+                }
+            }
+            if (localBits != null) {
+                for (long offset : offsets) {
+                    setLocal(offset);
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("布隆过滤器查询失败: key={}", key, e);
+            return true;
+        }
+    }
+
+    /**
+     * 全量构建：先写入临时Key，完成后原子替换，构建期间不影响查询
+     * <p>
+     * 临时Key创建之后的 {@code put} 会同时写入临时Key；在此之前已读出元素列表、之后才新增的元素可能遗漏，
+     * 需要严格不漏时使用 {@link #build(Supplier)}。
+     *
+     * @throws IllegalStateException Redis写入失败，原过滤器保持不变
+     */
+    public void build(Collection<String> elements) {
+        build(() -> elements);
+    }
+
+    /**
+     * 全量构建：先创建临时Key再调用loader读取全部元素，读取期间及之后的 {@code put} 都会写入临时Key
+     *
+     * @param loader 读取全部元素
+     * @throws IllegalStateException Redis写入失败，原过滤器保持不变
+     */
+    public void build(Supplier<? extends Collection<String>> loader) {
+        try {
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.keyCommands().del(rawBuildingKey);
+                // 空位图：标记重建开始，此后的 put 双写
+                connection.stringCommands().pSetEx(rawBuildingKey, BUILDING_TTL_MILLIS, new byte[0]);
+                return null;
+            });
+            Collection<String> elements = loader.get();
+            if (elements != null && !elements.isEmpty()) {
+                writeBits(elements, true);
+            }
+            Long swapped = redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(SWAP_SCRIPT, ReturnType.INTEGER, 2,
+                            rawBuildingKey, rawKey));
+            if (swapped == null || swapped == 0L) {
+                throw new IllegalStateException("布隆过滤器临时Key已过期: " + buildingKey);
+            }
+        } catch (Exception e) {
+            // 写了一半的临时Key不能替换原过滤器
+            log.error("布隆过滤器构建失败，保留原过滤器: key={}", key, e);
+            try {
+                redisTemplate.delete(buildingKey);
+            } catch (Exception ignored) {
+                // 临时Key在下次构建时删除
+            }
+            throw new IllegalStateException("布隆过滤器构建失败: " + key, e);
+        }
+        reloadLocal();
+    }
+
+    /**
+     * 从Redis全量加载本地位图副本
+     */
+    public void reloadLocal() {
+        if (localBits == null) {
+            return;
+        }
+        byte[] bitmap;
+        try {
+            bitmap = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(rawKey));
+        } catch (Exception e) {
+            log.error("布隆过滤器加载本地副本失败: key={}", key, e);
+            return;
+        }
+        for (int i = 0; i < localBits.length(); i++) {
+            localBits.set(i, 0L);
+        }
+        if (bitmap == null) {
+            return;
+        }
+        // Redis位图按字节高位在前存储
+        for (int i = 0; i < bitmap.length; i++) {
+            int b = bitmap[i] & 0xFF;
+            if (b == 0) {
+                continue;
+            }
+            for (int bit = 0; bit < 8; bit++) {
+                if ((b & (0x80 >>> bit)) != 0) {
+                    long offset = ((long) i << 3) + bit;
+                    if (offset < numBits) {
+                        setLocal(offset);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 删除过滤器
+     */
+    public void delete() {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.error("布隆过滤器删除失败: key={}", key, e);
+        }
+        if (localBits != null) {
+            for (int i = 0; i < localBits.length(); i++) {
+                localBits.set(i, 0L);
+            }
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashFunctions() {
+        return numHashFunctions;
+    }
+
+    /**
+     * @param building true写入临时Key（构建），false写入正式Key并在重建中时双写
+     */
+    private void writeBits(Collection<String> elements, boolean building) {
+        List<String> batch = new ArrayList<>(Math.min(batchSize, elements.size()));
+        for (String element : elements) {
+            if (element == null) {
+                continue;
+            }
+            batch.add(element);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, building);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, building);
+        }
+    }
+
+    private void writeBatch(List<String> batch, boolean building) {
+        if (building) {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String element : batch) {
+                    for (long offset : offsets(element)) {
+                        connection.stringCommands().setBit(rawBuildingKey, offset, true);
+                    }
+                }
+                connection.keyCommands().pExpire(rawBuildingKey, BUILDING_TTL_MILLIS);
+                return null;
+            });
+            return;
+        }
+        byte[][] keysAndArgs = new byte[2 + batch.size() * numHashFunctions][];
+        keysAndArgs[0] = rawKey;
+        keysAndArgs[1] = rawBuildingKey;
+        int i = 2;
+        for (String element : batch) {
+            for (long offset : offsets(element)) {
+                keysAndArgs[i++] = Long.toString(offset).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        redisTemplate.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(PUT_SCRIPT, ReturnType.INTEGER, 2, keysAndArgs));
+    }
+
+    private boolean allSetLocally(long[] offsets) {
+        for (long offset : offsets) {
+            if ((localBits.get((int) (offset >>> 6)) & (1L << (offset & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setLocal(long offset) {
+        long mask = 1L << (offset & 63);
+        localBits.accumulateAndGet((int) (offset >>> 6), mask, (prev, m) -> prev | m);
+    }
+
+    /**
+     * 双重哈希计算位偏移：g_i(x) = h1(x) + i * h2(x)
+     */
+    private long[] offsets(String element) {
+        long[] hash = murmur3Hash128(element.getBytes(StandardCharsets.UTF_8));
+        long h1 = hash[0];
+        long h2 = hash[1];
+        long[] offsets = new long[numHashFunctions];
+        long combined = h1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            offsets[i] = (combined & Long.MAX_VALUE) % numBits;
+            combined += h2;
+        }
+        return offsets;
+    }
+
+    /**
+     * MurmurHash3 x64 128位
+     */
+    private static long[] murmur3Hash128(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        int length = data.length;
+        int blocks = length >>> 4;
+        long h1 = 0;
+        long h2 = 0;
+
+        for (int i = 0; i < blocks; i++) {
+            int idx = i << 4;
+            long k1 = getLittleEndianLong(data, idx);
+            long k2 = getLittleEndianLong(data, idx + 8);
+
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks << 4;
+        switch (length & 15) {
+            case 15: k2 ^= ((long) data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= ((long) data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= ((long) data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= ((long) data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= ((long) data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= ((long) data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= ((long) data[tail + 8] & 0xff);
+                k2 *= c2;
+                k2 = Long.rotateLeft(k2, 33);
+                k2 *= c1;
+                h2 ^= k2;
+            case 8: k1 ^= ((long) data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= ((long) data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= ((long) data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= ((long) data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= ((long) data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= ((long) data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= ((long) data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= ((long) data[tail] & 0xff);
+                k1 *= c1;
+                k1 = Long.rotateLeft(k1, 31);
+                k1 *= c2;
+                h1 ^= k1;
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long getLittleEndianLong(byte[] data, int idx) {
+        return ((long) data[idx] & 0xff)
+                | (((long) data[idx + 1] & 0xff) << 8)
+                | (((long) data[idx + 2] & 0xff) << 16)
+                | (((long) data[idx + 3] & 0xff) << 24)
+                | (((long) data[idx + 4] & 0xff) << 32)
+                | (((long) data[idx + 5] & 0xff) << 40)
+                | (((long) data[idx + 6] & 0xff) << 48)
+                | (((long) data[idx + 7] & 0xff) << 56);
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
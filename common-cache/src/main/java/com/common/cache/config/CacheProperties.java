@@ -1,8 +1,15 @@
 package com.common.cache.config;
 
+import com.common.cache.local.LocalStoreType;
+import com.common.cache.serializer.SerializerType;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 缓存配置属性
  */
@@ -29,4 +36,571 @@ public class CacheProperties {
      * Key分隔符
      */
     private String keySeparator = ":";
+
+    /**
+     * 缓存值序列化方式：json, binary, json-compressed
+     */
+    private SerializerType serializer = SerializerType.JSON;
+
+    /**
+     * 压缩阈值（字节），序列化结果超过该大小才压缩（binary / json-compressed 生效）
+     */
+    private int compressThreshold = 4096;
+
+    /**
+     * 本地一级缓存配置
+     */
+    private LocalProperties local = new LocalProperties();
+
+    /**
+     * 缓存加载（getOrLoad）配置
+     */
+    private LoadProperties load = new LoadProperties();
+
+    /**
+     * 提前刷新（XFetch）配置
+     */
+    private RefreshAheadProperties refreshAhead = new RefreshAheadProperties();
+
+    /**
+     * TTL打散配置
+     */
+    private JitterProperties jitter = new JitterProperties();
+
+    /**
+     * 布隆过滤器配置
+     */
+    private BloomProperties bloom = new BloomProperties();
+
+    /**
+     * 分布式锁配置
+     */
+    private LockProperties lock = new LockProperties();
+
+    /**
+     * 限流配置
+     */
+    private LimitProperties limit = new LimitProperties();
+
+    /**
+     * Key扫描配置
+     */
+    private ScanProperties scan = new ScanProperties();
+
+    /**
+     * 指标与慢命令日志配置
+     */
+    private MetricsProperties metrics = new MetricsProperties();
+
+    /**
+     * Redis熔断与调用超时配置
+     */
+    private ResilienceProperties resilience = new ResilienceProperties();
+
+    /**
+     * 热点Key探测配置
+     */
+    private HotKeyProperties hotKey = new HotKeyProperties();
+
+    /**
+     * 大Key告警与分块存储配置
+     */
+    private BigValueProperties bigValue = new BigValueProperties();
+
+    /**
+     * 写缓冲计数器配置
+     */
+    private CounterProperties counter = new CounterProperties();
+
+    /**
+     * Spring Cache（{@code @Cacheable}）集成配置
+     */
+    private SpringCacheProperties spring = new SpringCacheProperties();
+
+    /**
+     * 启动预热配置
+     */
+    private WarmupProperties warmup = new WarmupProperties();
+
+    /**
+     * 命名空间版本配置
+     */
+    private NamespaceProperties namespace = new NamespaceProperties();
+
+    @Data
+    public static class LocalProperties {
+        /**
+         * 是否启用本地一级缓存
+         */
+        private boolean enabled = false;
+
+        /**
+         * 最大缓存条目数
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 本地缓存过期时间（秒）
+         */
+        private long ttl = 60;
+
+        /**
+         * 参与本地缓存的完整Key前缀，为空表示所有Key都参与
+         */
+        private List<String> keyPrefixes = new ArrayList<>();
+
+        /**
+         * 跨节点失效广播频道
+         */
+        private String invalidationChannel = "common:cache:invalidate";
+
+        /**
+         * 存储方式：heap（Caffeine）或 off-heap（直接内存）
+         */
+        private LocalStoreType store = LocalStoreType.HEAP;
+
+        /**
+         * 堆外存储总容量（MB）
+         */
+        private long offHeapCapacity = 256;
+
+        /**
+         * 堆外存储分段数（每段一把锁）
+         */
+        private int offHeapSegments = 16;
+    }
+
+    @Data
+    public static class LoadProperties {
+        /**
+         * 是否启用跨节点加载锁（同一Key在集群内只有一个节点回源）
+         */
+        private boolean distributedLock = false;
+
+        /**
+         * 加载锁过期时间（毫秒），应大于一次回源的最长耗时
+         */
+        private long lockTtl = 10000;
+
+        /**
+         * 未抢到加载锁时等待其他节点回填缓存的最长时间（毫秒），超时后自行回源
+         */
+        private long lockWait = 3000;
+
+        /**
+         * 等待期间轮询缓存的间隔（毫秒）
+         */
+        private long retryInterval = 50;
+
+        /**
+         * 加载锁Key后缀
+         */
+        private String lockSuffix = ":loading";
+    }
+
+    @Data
+    public static class RefreshAheadProperties {
+        /**
+         * 是否启用提前刷新
+         */
+        private boolean enabled = false;
+
+        /**
+         * 按Key前缀配置的刷新规则
+         */
+        private List<RefreshRule> rules = new ArrayList<>();
+
+        /**
+         * 刷新线程池核心线程数
+         */
+        private int corePoolSize = 2;
+
+        /**
+         * 刷新线程池最大线程数
+         */
+        private int maxPoolSize = 4;
+
+        /**
+         * 刷新线程池队列容量，队列满时放弃本次刷新
+         */
+        private int queueCapacity = 200;
+    }
+
+    @Data
+    public static class RefreshRule {
+        /**
+         * 完整Key前缀
+         */
+        private String keyPrefix;
+
+        /**
+         * 提前系数，越大越早刷新
+         */
+        private double beta = 1.0;
+
+        /**
+         * 初始回源耗时估计（毫秒）
+         */
+        private long initialDelta = 100;
+    }
+
+    @Data
+    public static class JitterProperties {
+        /**
+         * 是否启用TTL打散
+         */
+        private boolean enabled = false;
+
+        /**
+         * 按比例打散，如0.1表示在原TTL上最多追加10%
+         */
+        private double ratio = 0.1;
+
+        /**
+         * 按绝对范围打散（秒），大于0时优先于比例
+         */
+        private long range = 0;
+
+        /**
+         * 按Key前缀覆盖的打散规则
+         */
+        private List<JitterRule> rules = new ArrayList<>();
+
+        /**
+         * 过期分布直方图窗口大小（秒）
+         */
+        private long histogramBucket = 60;
+
+        /**
+         * 过期分布直方图最多统计的未来窗口数
+         */
+        private int histogramMaxBuckets = 1440;
+
+        /**
+         * 注册为指标的未来窗口数（每个窗口一个Gauge），0不注册
+         */
+        private int histogramMetricBuckets = 60;
+    }
+
+    @Data
+    public static class JitterRule {
+        /**
+         * 完整Key前缀
+         */
+        private String keyPrefix;
+
+        /**
+         * 按比例打散
+         */
+        private double ratio = 0.1;
+
+        /**
+         * 按绝对范围打散（秒），大于0时优先于比例
+         */
+        private long range = 0;
+    }
+
+    @Data
+    public static class BloomProperties {
+        /**
+         * 管道批量写入/查询的元素个数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 是否维护本地位图副本（占用内存 = 位图大小）
+         */
+        private boolean localCopy = true;
+    }
+
+    @Data
+    public static class LockProperties {
+        /**
+         * 看门狗续期的租期（毫秒），未指定租期时生效，每隔1/3租期续期一次
+         */
+        private long watchdogTimeout = 30000;
+
+        /**
+         * 释放锁通知频道，等待者订阅该频道被唤醒
+         */
+        private String channel = "common:lock:unlock";
+
+        /**
+         * 看门狗调度线程数
+         */
+        private int watchdogThreads = 1;
+    }
+
+    @Data
+    public static class LimitProperties {
+        /**
+         * 本地预取许可的最长有效期（毫秒），同时不超过规则窗口
+         */
+        private long localHold = 1000;
+
+        /**
+         * Redis异常时是否放行
+         */
+        private boolean failOpen = true;
+    }
+
+    @Data
+    public static class ScanProperties {
+        /**
+         * 每次SCAN的COUNT，同时作为按模式删除的每批Key数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 按模式删除时批次间暂停（毫秒）
+         */
+        private long deletePause = 10;
+    }
+
+    @Data
+    public static class MetricsProperties {
+        /**
+         * 是否注册Micrometer指标（需引入micrometer-core）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 慢命令阈值（毫秒），超过时打印WARN日志，小于等于0关闭
+         */
+        private long slowThreshold = 100;
+
+        /**
+         * Key是否带租户段，为true时模块取前缀后的第二段
+         */
+        private boolean tenantAware = false;
+
+        /**
+         * 模块标签最多取值数，超出部分记为other
+         */
+        private int maxModules = 100;
+    }
+
+    @Data
+    public static class ResilienceProperties {
+        /**
+         * 是否启用熔断（默认关闭）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 失败率阈值（百分比），达到后打开熔断
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 慢调用率阈值（百分比），达到后打开熔断，大于100表示不按慢调用熔断（默认）
+         */
+        private int slowCallRateThreshold = 101;
+
+        /**
+         * 慢调用耗时（毫秒）
+         */
+        private long slowCallDuration = 500;
+
+        /**
+         * 统计窗口（最近调用次数）
+         */
+        private int windowSize = 100;
+
+        /**
+         * 计算比率所需的最少调用次数
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * 熔断打开持续时间（毫秒），之后进入半开状态
+         */
+        private long openDuration = 5000;
+
+        /**
+         * 半开状态探测调用次数
+         */
+        private int halfOpenCalls = 5;
+
+        /**
+         * 单次调用超时（毫秒），大于0时Redis命令在独立线程池执行，超时立即返回降级值；0表示只依赖客户端超时
+         */
+        private long callTimeout = 0;
+
+        /**
+         * 调用线程池大小（仅 callTimeout 大于0时生效），线程耗尽时直接降级
+         */
+        private int callThreads = 32;
+    }
+
+    @Data
+    public static class HotKeyProperties {
+        /**
+         * 是否启用热点Key探测
+         */
+        private boolean enabled = false;
+
+        /**
+         * 采样率，每N次读取记录1次
+         */
+        private int sampleRate = 10;
+
+        /**
+         * 统计窗口（秒）
+         */
+        private long window = 10;
+
+        /**
+         * 窗口分段数，越大滑动越平滑
+         */
+        private int segments = 5;
+
+        /**
+         * Count-Min Sketch宽度，越大误差越小
+         */
+        private int sketchWidth = 2048;
+
+        /**
+         * 窗口内估计读取次数达到该值视为热点
+         */
+        private long threshold = 5000;
+
+        /**
+         * 最多保留的热点Key数，同时是端点返回的个数
+         */
+        private int topN = 50;
+
+        /**
+         * 热点值本地固定时间（毫秒），0表示只探测不固定
+         */
+        private long pinTtl = 0;
+    }
+
+    @Data
+    public static class BigValueProperties {
+        /**
+         * 大Value告警阈值（KB），序列化后超过该大小时打印WARN日志，0表示不告警
+         */
+        private int warnSize = 512;
+
+        /**
+         * hGetAll/sMembers 返回元素数告警阈值，0表示不告警
+         */
+        private int warnElements = 5000;
+
+        /**
+         * 分块阈值（KB），String值序列化后超过该大小时拆分为多个Key存储，0表示不分块
+         */
+        private int chunkSize = 0;
+    }
+
+    @Data
+    public static class CounterProperties {
+        /**
+         * 刷新间隔（毫秒）
+         */
+        private long flushInterval = 1000;
+
+        /**
+         * 待刷新Key数达到该值时立即刷新
+         */
+        private int maxPendingKeys = 10000;
+
+        /**
+         * 每个管道最多包含的INCRBY命令数
+         */
+        private int batchSize = 500;
+
+        /**
+         * Key连续多少个刷新周期无增量后从本地移除
+         */
+        private int idleFlushes = 60;
+    }
+
+    @Data
+    public static class SpringCacheProperties {
+        /**
+         * 是否注册基于RedisUtils的CacheManager（还需开启 @EnableCaching）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 未单独配置的缓存的过期时间（秒），0表示使用 defaultTtl
+         */
+        private long ttl = 0;
+
+        /**
+         * 是否缓存null（写入空值占位，过期时间为 nullValueTtl）
+         */
+        private boolean cacheNullValues = true;
+
+        /**
+         * 是否按需创建未在 caches 中声明的缓存
+         */
+        private boolean dynamic = true;
+
+        /**
+         * 缓存名 -> 单独配置
+         */
+        private Map<String, SpringCacheSpec> caches = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class SpringCacheSpec {
+        /**
+         * 过期时间（秒），0表示使用 common.cache.spring.ttl
+         */
+        private long ttl = 0;
+
+        /**
+         * 是否进入本地一级缓存（需开启 common.cache.local.enabled，且 key-prefixes 非空时才需要单独声明）
+         */
+        private boolean local = false;
+    }
+
+    @Data
+    public static class WarmupProperties {
+        /**
+         * 是否在应用就绪时执行 CacheWarmer
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每批ID数（一次MGET、一次回源、一次管道写入）
+         */
+        private int batchSize = 200;
+
+        /**
+         * 并行批次数
+         */
+        private int parallelism = 4;
+
+        /**
+         * 整体超时（秒），超时后中断剩余批次
+         */
+        private long timeout = 300;
+
+        /**
+         * 是否同步执行：预热结束前不进入就绪状态
+         */
+        private boolean blocking = false;
+    }
+
+    @Data
+    public static class NamespaceProperties {
+        /**
+         * 是否启用命名空间版本（generateVersioned / invalidateNamespace）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 版本号本地缓存时间（秒），广播丢失时其他节点最多延迟该时间看到新版本
+         */
+        private long localTtl = 60;
+
+        /**
+         * 版本变更广播频道
+         */
+        private String channel = "common:cache:namespace";
+    }
 }
@@ -0,0 +1,500 @@
+package com.common.cache.counter;
+
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 写缓冲计数器
+ * <p>
+ * 增量先累加到本地 {@link LongAdder}，按 flushInterval 定时（或待刷新Key数达到 maxPendingKeys 时立即）
+ * 以管道 INCRBY 批量写入Redis，高频计数场景下Redis命令数从每次调用一条降为每个Key每个周期一条。
+ * <ul>
+ *     <li>刷新时先 {@code sum()} 再 {@code add(-d)}，并发累加不会丢失</li>
+ *     <li>确定未写入的增量（连接失败、命令被Redis拒绝）只加回对应Key，下个周期重试；
+ *     结果未知的增量（超时、连接中断）不重试，记录日志后丢弃，宁可少计也不重复计数</li>
+ *     <li>{@link #get(String)} 返回Redis值加本地未刷新的增量，不持有刷新锁；该Key正在刷新时等待所在批次完成，
+ *     读取期间该Key开始或完成刷新时重读，不会重复或遗漏</li>
+ *     <li>容器关闭时执行最后一次刷新；进程被强制终止时未刷新的增量会丢失</li>
+ * </ul>
+ * Redis中保存的是纯数字，可以与 {@code RedisUtils.incr} 混用同一个Key。
+ */
+@Slf4j
+public class BufferedCounter {
+
+    private static final boolean LETTUCE_PRESENT =
+            ClassUtils.isPresent("io.lettuce.core.RedisFuture", BufferedCounter.class.getClassLoader());
+
+    /**
+     * 等待一批 INCRBY 结果的最长时间，超时的命令视为结果未知
+     */
+    private static final long WRITE_TIMEOUT_MILLIS = 10000;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int maxPendingKeys;
+    private final int batchSize;
+    private final int idleFlushes;
+
+    /**
+     * Key -> 本地待刷新增量
+     */
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 串行化刷新；读取不获取该锁
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    /**
+     * @param redisTemplate   Redis模板
+     * @param flushMillis     刷新间隔（毫秒）
+     * @param maxPendingKeys  待刷新Key数达到该值时立即刷新
+     * @param batchSize       每个管道最多包含的命令数
+     * @param idleFlushes     Key连续多少个周期无增量后从本地移除
+     */
+    public BufferedCounter(RedisTemplate<String, Object> redisTemplate, long flushMillis, int maxPendingKeys,
+                           int batchSize, int idleFlushes) {
+        this.redisTemplate = redisTemplate;
+        this.maxPendingKeys = Math.max(maxPendingKeys, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.idleFlushes = Math.max(idleFlushes, 1);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "cache-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(flushMillis, 10);
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        this.scheduler = executor;
+    }
+
+    /**
+     * 计数加1
+     */
+    public void increment(String key) {
+        add(key, 1);
+    }
+
+    /**
+     * 累加增量（只写本地，由后台批量刷新到Redis）
+     */
+    public void add(String key, long delta) {
+        if (key == null || key.isEmpty() || delta == 0) {
+            return;
+        }
+        addPending(key, delta);
+        if (closed) {
+            // 关闭后的增量直接写入，避免丢失
+            flushQuietly();
+        }
+    }
+
+    /**
+     * 获取计数：Redis中的值加本地未刷新的增量
+     *
+     * @return 计数值；Redis异常时只返回本地增量
+     */
+    public long get(String key) {
+        if (key == null || key.isEmpty()) {
+            return 0;
+        }
+        while (true) {
+            Pending entry = pending.get(key);
+            long version = entry != null ? entry.version : 0;
+            if ((version & 1) == 1) {
+                // 该Key的增量正在写入，Redis值是否已包含它不确定，等所在批次完成后重读
+                if (!awaitFlush(entry)) {
+                    return readRemote(key) + entry.adder.sum();
+                }
+                continue;
+            }
+            long remote = readRemote(key);
+            if (entry == null) {
+                if (pending.get(key) == null) {
+                    return remote;
+                }
+                continue;
+            }
+            long local = entry.adder.sum();
+            // 读取期间该Key没有开始或完成刷新，Redis值与本地增量不重叠也不遗漏
+            if (entry.version == version && !entry.dead) {
+                return remote + local;
+            }
+        }
+    }
+
+    /**
+     * 读取Redis中的计数，异常时返回0
+     */
+    private long readRemote(String key) {
+        try {
+            byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(key.getBytes(StandardCharsets.UTF_8)));
+            return parse(raw);
+        } catch (Exception e) {
+            log.error("Redis 读取计数失败: key={}", key, e);
+            return 0;
+        }
+    }
+
+    /**
+     * 等待条目所在的刷新批次完成
+     *
+     * @return 是否在超时前完成
+     */
+    private static boolean awaitFlush(Pending entry) {
+        CompletableFuture<Void> batch = entry.batch;
+        if (batch == null) {
+            return true;
+        }
+        try {
+            batch.get(WRITE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 本地未刷新的增量
+     */
+    public long pendingDelta(String key) {
+        Pending entry = pending.get(key);
+        return entry != null ? entry.adder.sum() : 0;
+    }
+
+    /**
+     * 立即把本地增量刷新到Redis
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停止定时刷新并执行最后一次刷新（容器销毁时调用）
+     */
+    public void shutdown() {
+        closed = true;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * 累加到本地条目；条目已被移除时把残留增量转移到新条目
+     */
+    private void addPending(String key, long delta) {
+        while (delta != 0) {
+            Pending entry = pending.get(key);
+            if (entry == null) {
+                entry = pending.computeIfAbsent(key, k -> new Pending());
+                if (pending.size() >= maxPendingKeys) {
+                    requestFlush();
+                }
+            }
+            entry.adder.add(delta);
+            if (!entry.dead) {
+                return;
+            }
+            delta = entry.drain();
+        }
+    }
+
+    private void requestFlush() {
+        if (!closed && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (Exception e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("刷新缓冲计数失败", e);
+        }
+    }
+
+    private void doFlush() {
+        List<String> keys = new ArrayList<>(batchSize);
+        List<Long> deltas = new ArrayList<>(batchSize);
+        List<Pending> entries = new ArrayList<>(batchSize);
+        CompletableFuture<Void> batch = new CompletableFuture<>();
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            Pending value = entry.getValue();
+            long delta = value.adder.sum();
+            if (delta == 0) {
+                if (++value.idle >= idleFlushes) {
+                    evict(entry.getKey(), value);
+                }
+                continue;
+            }
+            // 先标记刷新中再扣减，读取方看到扣减后的值时一定能看到标记
+            value.batch = batch;
+            value.version++;
+            value.adder.add(-delta);
+            value.idle = 0;
+            keys.add(entry.getKey());
+            deltas.add(delta);
+            entries.add(value);
+            if (keys.size() >= batchSize) {
+                writeBatch(keys, deltas, entries, batch);
+                keys.clear();
+                deltas.clear();
+                entries.clear();
+                batch = new CompletableFuture<>();
+            }
+        }
+        if (!keys.isEmpty()) {
+            writeBatch(keys, deltas, entries, batch);
+        }
+    }
+
+    /**
+     * 写入一批增量，结束后（含失败增量加回本地）清除刷新标记并唤醒等待该批次的读取
+     */
+    private void writeBatch(List<String> keys, List<Long> deltas, List<Pending> entries,
+                            CompletableFuture<Void> batch) {
+        try {
+            write(keys, deltas);
+        } finally {
+            for (Pending entry : entries) {
+                entry.version++;
+                entry.batch = null;
+            }
+            batch.complete(null);
+        }
+    }
+
+    private void write(List<String> keys, List<Long> deltas) {
+        AtomicBoolean sent = new AtomicBoolean();
+        Outcome[] outcomes;
+        try {
+            outcomes = redisTemplate.execute((RedisCallback<Outcome[]>) connection -> {
+                sent.set(true);
+                if (LETTUCE_PRESENT && LettuceIncrBy.supports(connection)) {
+                    return LettuceIncrBy.execute(connection, keys, deltas);
+                }
+                return pipelinedIncrBy(connection, keys, deltas);
+            });
+        } catch (Exception e) {
+            if (sent.get()) {
+                logLost(keys, deltas, e);
+                return;
+            }
+            // 未获取到连接，命令没有发出，整批加回本地
+            log.error("Redis 连接失败，增量保留到下次刷新: size={}", keys.size(), e);
+            for (int i = 0; i < keys.size(); i++) {
+                addPending(keys.get(i), deltas.get(i));
+            }
+            return;
+        }
+        List<String> unknownKeys = new ArrayList<>();
+        List<Long> unknownDeltas = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (outcomes[i] == Outcome.REJECTED) {
+                // 被Redis拒绝（如 WRONGTYPE）的命令没有生效，只加回这一个Key
+                log.error("Redis INCRBY被拒绝，增量保留到下次刷新: key={}, delta={}", keys.get(i), deltas.get(i));
+                addPending(keys.get(i), deltas.get(i));
+            } else if (outcomes[i] == Outcome.UNKNOWN) {
+                unknownKeys.add(keys.get(i));
+                unknownDeltas.add(deltas.get(i));
+            }
+        }
+        if (!unknownKeys.isEmpty()) {
+            logLost(unknownKeys, unknownDeltas, null);
+        }
+    }
+
+    /**
+     * 通用管道写入；部分驱动出错时不返回逐条结果，此时整批视为结果未知
+     */
+    private static Outcome[] pipelinedIncrBy(RedisConnection connection, List<String> keys, List<Long> deltas) {
+        Outcome[] outcomes = new Outcome[keys.size()];
+        connection.openPipeline();
+        List<Object> results;
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                connection.stringCommands().incrBy(keys.get(i).getBytes(StandardCharsets.UTF_8), deltas.get(i));
+            }
+            results = connection.closePipeline();
+        } catch (RedisPipelineException e) {
+            results = e.getPipelineResult();
+            if (results.size() != keys.size()) {
+                log.error("Redis 批量INCRBY失败且没有逐条结果: size={}", keys.size(), e);
+                Arrays.fill(outcomes, Outcome.UNKNOWN);
+                return outcomes;
+            }
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = i < results.size() && results.get(i) instanceof Throwable ? Outcome.REJECTED : Outcome.OK;
+        }
+        return outcomes;
+    }
+
+    /**
+     * 结果未知的增量不重试（重试可能重复计数），记录到日志便于人工核对
+     */
+    private void logLost(List<String> keys, List<Long> deltas, Exception e) {
+        Map<String, Long> lost = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            lost.put(keys.get(i), deltas.get(i));
+        }
+        log.error("Redis INCRBY结果未知，增量已丢弃: {}", lost, e);
+    }
+
+    /**
+     * 移除长期无增量的Key：先标记失效再移除，之后转移残留增量；
+     * 并发的 {@link #addPending} 写入已失效的条目后会自行转移，增量不会遗漏
+     */
+    private void evict(String key, Pending value) {
+        value.dead = true;
+        pending.remove(key, value);
+        long late = value.drain();
+        if (late != 0) {
+            addPending(key, late);
+        }
+    }
+
+    private static long parse(byte[] raw) {
+        if (raw == null || raw.length == 0) {
+            return 0;
+        }
+        return Long.parseLong(new String(raw, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 单条 INCRBY 的结果
+     */
+    private enum Outcome {
+        /**
+         * 已生效
+         */
+        OK,
+        /**
+         * 被Redis拒绝，未生效
+         */
+        REJECTED,
+        /**
+         * 超时或连接中断，可能已生效
+         */
+        UNKNOWN
+    }
+
+    /**
+     * Lettuce 的管道出错时不返回逐条结果，改用原生异步命令（同一连接上自动流水线发送）逐条等待结果；
+     * 单独的类，未引入Lettuce时不会被加载
+     */
+    private static final class LettuceIncrBy {
+
+        static boolean supports(RedisConnection connection) {
+            return connection.getNativeConnection() instanceof RedisClusterAsyncCommands;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Outcome[] execute(RedisConnection connection, List<String> keys, List<Long> deltas) {
+            RedisClusterAsyncCommands<byte[], byte[]> commands =
+                    (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            List<RedisFuture<Long>> futures = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                futures.add(commands.incrby(keys.get(i).getBytes(StandardCharsets.UTF_8), deltas.get(i)));
+            }
+            Outcome[] outcomes = new Outcome[keys.size()];
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MILLIS);
+            for (int i = 0; i < outcomes.length; i++) {
+                try {
+                    futures.get(i).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    outcomes[i] = Outcome.OK;
+                } catch (ExecutionException e) {
+                    outcomes[i] = e.getCause() instanceof RedisCommandExecutionException
+                            ? Outcome.REJECTED : Outcome.UNKNOWN;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    outcomes[i] = Outcome.UNKNOWN;
+                } catch (Exception e) {
+                    outcomes[i] = Outcome.UNKNOWN;
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    private static final class Pending {
+        private final LongAdder adder = new LongAdder();
+
+        /**
+         * 已从 pending 移除，写入该条目的增量需要转移到新条目
+         */
+        private volatile boolean dead;
+
+        /**
+         * 连续无增量的刷新次数，只由刷新线程读写
+         */
+        private int idle;
+
+        /**
+         * 刷新版本，奇数表示增量正在写入Redis；只由刷新线程写入
+         */
+        private volatile long version;
+
+        /**
+         * 正在写入的批次，读取方据此等待
+         */
+        private volatile CompletableFuture<Void> batch;
+
+        /**
+         * 取出当前余量；串行执行，每次只减去读到的值，并发累加不会丢失或重复
+         */
+        synchronized long drain() {
+            long sum = adder.sum();
+            if (sum != 0) {
+                adder.add(-sum);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.common.cache.hotkey;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 热点Key探测
+ * <p>
+ * 按 1/sampleRate 的概率对读取采样，计入滑动窗口上的Count-Min Sketch。
+ * 窗口由 segments 个分段组成，按时间轮换，过期分段清零后复用。
+ * 窗口内估计次数达到阈值的Key成为热点，最多保留 capacity 个。
+ * 开启固定后，热点Key的值在本地保存 pinTtl 毫秒，期间读取不访问Redis。
+ * <p>
+ * 记录路径只有原子自增与ConcurrentHashMap查找，不加锁。
+ * Count-Min Sketch只会高估不会低估，计数按采样率放大，是近似值。
+ */
+public class HotKeyDetector {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0xD6E8FEB86659FD93L};
+
+    private final int sampleRate;
+    private final long threshold;
+    private final int capacity;
+    private final long pinTtlMillis;
+    private final long segmentMillis;
+    private final int mask;
+
+    /**
+     * 各分段的Sketch，DEPTH行 x width列
+     */
+    private final AtomicLongArray[] sketches;
+    private final AtomicLong currentEpoch = new AtomicLong();
+
+    /**
+     * 当前热点Key -> 最近一次估计次数
+     */
+    private final ConcurrentHashMap<String, AtomicLong> hotKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 已固定的热点值
+     */
+    private final ConcurrentHashMap<String, Pinned> pinned = new ConcurrentHashMap<>();
+
+    /**
+     * @param sampleRate   采样率，每N次读取记录1次
+     * @param windowMillis 统计窗口（毫秒）
+     * @param segments     窗口分段数
+     * @param width        Sketch宽度，向上取整为2的幂
+     * @param threshold    窗口内估计读取次数达到该值视为热点
+     * @param capacity     最多保留的热点Key数
+     * @param pinTtlMillis 热点值本地固定时间（毫秒），0表示只探测不固定
+     */
+    public HotKeyDetector(int sampleRate, long windowMillis, int segments, int width, long threshold,
+                          int capacity, long pinTtlMillis) {
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.threshold = Math.max(threshold, 1);
+        this.capacity = Math.max(capacity, 1);
+        this.pinTtlMillis = Math.max(pinTtlMillis, 0);
+        int segmentCount = Math.max(segments, 1);
+        this.segmentMillis = Math.max(windowMillis / segmentCount, 1);
+        int columns = Integer.highestOneBit(Math.max(width, 16) - 1) << 1;
+        this.mask = columns - 1;
+        this.sketches = new AtomicLongArray[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            sketches[i] = new AtomicLongArray(DEPTH * columns);
+        }
+        this.currentEpoch.set(System.currentTimeMillis() / segmentMillis);
+    }
+
+    /**
+     * 记录一次读取；Key为热点且开启固定时保存读取到的值
+     *
+     * @param key   缓存Key
+     * @param value 从Redis读取到的原始值，null不固定
+     */
+    public void onRead(String key, Object value) {
+        sample(key);
+        if (pinTtlMillis > 0 && value != null && hotKeys.containsKey(key)) {
+            pinned.put(key, new Pinned(value, System.currentTimeMillis() + pinTtlMillis));
+        }
+    }
+
+    /**
+     * 记录一次命中本地固定值的读取，只计数不重新固定，保证持续被读的热点Key不会在分段轮换时被移除
+     */
+    public void onPinnedRead(String key) {
+        sample(key);
+    }
+
+    /**
+     * 获取固定在本地的热点值
+     *
+     * @return 原始值，未固定或已过期时返回null
+     */
+    public Object getPinned(String key) {
+        if (pinned.isEmpty()) {
+            return null;
+        }
+        Pinned entry = pinned.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis()) {
+            pinned.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 写入或删除时移除本地固定的值
+     */
+    public void invalidate(Collection<String> keys) {
+        if (pinned.isEmpty()) {
+            return;
+        }
+        for (String key : keys) {
+            pinned.remove(key);
+        }
+    }
+
+    /**
+     * 是否固定热点值（pinTtl大于0）
+     */
+    public boolean isPinning() {
+        return pinTtlMillis > 0;
+    }
+
+    public boolean isHot(String key) {
+        return hotKeys.containsKey(key);
+    }
+
+    /**
+     * 按窗口内估计读取次数降序返回热点Key
+     *
+     * @param limit 最多返回个数
+     */
+    public List<HotKey> topN(int limit) {
+        rotate(System.currentTimeMillis() / segmentMillis);
+        List<HotKey> result = new ArrayList<>(hotKeys.size());
+        for (String key : hotKeys.keySet()) {
+            long count = estimate(key);
+            if (count >= threshold) {
+                result.add(new HotKey(key, count, pinned.containsKey(key)));
+            }
+        }
+        result.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, Math.max(limit, 0))) : result;
+    }
+
+    public long getWindowMillis() {
+        return segmentMillis * sketches.length;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    private void sample(String key) {
+        if (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            record(key);
+        }
+    }
+
+    private void record(String key) {
+        long now = System.currentTimeMillis();
+        long epoch = now / segmentMillis;
+        rotate(epoch);
+        AtomicLongArray sketch = sketches[(int) (epoch % sketches.length)];
+        int hash = key.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            sketch.addAndGet(index(row, hash), sampleRate);
+        }
+        long count = estimate(key);
+        if (count < threshold) {
+            return;
+        }
+        AtomicLong current = hotKeys.get(key);
+        if (current != null) {
+            current.set(count);
+        } else if (hotKeys.size() < capacity || evictColderThan(count)) {
+            hotKeys.putIfAbsent(key, new AtomicLong(count));
+        }
+    }
+
+    /**
+     * 进入新的分段时清零过期分段，并移除不再热的Key；只有CAS成功的线程执行
+     */
+    private void rotate(long epoch) {
+        long current = currentEpoch.get();
+        if (epoch <= current || !currentEpoch.compareAndSet(current, epoch)) {
+            return;
+        }
+        long stale = Math.min(epoch - current, sketches.length);
+        for (long e = epoch - stale + 1; e <= epoch; e++) {
+            AtomicLongArray sketch = sketches[(int) (e % sketches.length)];
+            for (int i = 0; i < sketch.length(); i++) {
+                sketch.lazySet(i, 0);
+            }
+        }
+        for (Map.Entry<String, AtomicLong> entry : hotKeys.entrySet()) {
+            long count = estimate(entry.getKey());
+            if (count < threshold) {
+                hotKeys.remove(entry.getKey(), entry.getValue());
+                pinned.remove(entry.getKey());
+            } else {
+                entry.getValue().set(count);
+            }
+        }
+        long now = System.currentTimeMillis();
+        pinned.entrySet().removeIf(entry -> entry.getValue().expireAt <= now);
+    }
+
+    /**
+     * 热点已满时淘汰估计次数最小且小于count的Key
+     */
+    private boolean evictColderThan(long count) {
+        Map.Entry<String, AtomicLong> coldest = null;
+        for (Map.Entry<String, AtomicLong> entry : hotKeys.entrySet()) {
+            if (coldest == null || entry.getValue().get() < coldest.getValue().get()) {
+                coldest = entry;
+            }
+        }
+        if (coldest == null || coldest.getValue().get() >= count) {
+            return false;
+        }
+        hotKeys.remove(coldest.getKey(), coldest.getValue());
+        pinned.remove(coldest.getKey());
+        return true;
+    }
+
+    /**
+     * 窗口内估计次数：每行累加所有分段后取最小值
+     */
+    private long estimate(String key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(row, hash);
+            long sum = 0;
+            for (AtomicLongArray sketch : sketches) {
+                sum += sketch.get(index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    private int index(int row, int hash) {
+        long h = (hash ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return row * (mask + 1) + ((int) h & mask);
+    }
+
+    private static final class Pinned {
+        private final Object value;
+        private final long expireAt;
+
+        Pinned(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 热点Key快照
+     */
+    @Getter
+    public static class HotKey {
+        private final String key;
+
+        /**
+         * 窗口内估计读取次数
+         */
+        private final long count;
+
+        /**
+         * 是否已固定在本地
+         */
+        private final boolean pinned;
+
+        public HotKey(String key, long count, boolean pinned) {
+            this.key = key;
+            this.count = count;
+            this.pinned = pinned;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.common.cache.hotkey;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点Key端点：{@code GET /actuator/hotkeys}
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeyEndpoint {
+
+    private final HotKeyDetector detector;
+    private final int topN;
+
+    public HotKeyEndpoint(HotKeyDetector detector, int topN) {
+        this.detector = detector;
+        this.topN = topN;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        List<HotKeyDetector.HotKey> keys = detector.topN(topN);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("windowMillis", detector.getWindowMillis());
+        result.put("threshold", detector.getThreshold());
+        result.put("keys", keys);
+        return result;
+    }
+}
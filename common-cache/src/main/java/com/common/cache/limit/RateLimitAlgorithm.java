@@ -0,0 +1,22 @@
+package com.common.cache.limit;
+
+/**
+ * 限流算法
+ */
+public enum RateLimitAlgorithm {
+
+    /**
+     * 令牌桶：容量为limit，每个窗口匀速补满，允许突发
+     */
+    TOKEN_BUCKET,
+
+    /**
+     * 滑动窗口计数：按上一窗口计数加权估算，内存占用固定
+     */
+    SLIDING_WINDOW,
+
+    /**
+     * 滑动窗口日志：记录窗口内每次请求，最精确，内存随limit增长
+     */
+    SLIDING_LOG
+}
@@ -0,0 +1,48 @@
+package com.common.cache.limit;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流规则（不可变，可缓存为常量复用）
+ */
+@Getter
+public class RateLimitRule {
+
+    private final RateLimitAlgorithm algorithm;
+
+    /**
+     * 每个窗口允许的许可数（令牌桶为容量）
+     */
+    private final long limit;
+
+    /**
+     * 窗口长度（毫秒）
+     */
+    private final long windowMillis;
+
+    /**
+     * 本地预取批量，大于1时一次从Redis预留多个许可，本地消费完再访问Redis
+     */
+    private final int localBatch;
+
+    public RateLimitRule(RateLimitAlgorithm algorithm, long limit, long window, TimeUnit unit) {
+        this(algorithm, limit, window, unit, 1);
+    }
+
+    public RateLimitRule(RateLimitAlgorithm algorithm, long limit, long window, TimeUnit unit, int localBatch) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("限流阈值必须大于0");
+        }
+        long windowMillis = (unit != null ? unit : TimeUnit.SECONDS).toMillis(window);
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("限流窗口必须大于0");
+        }
+        this.algorithm = algorithm != null ? algorithm : RateLimitAlgorithm.TOKEN_BUCKET;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        // 预取批量不超过阈值，避免单节点一次取走全部许可
+        this.localBatch = (int) Math.max(1, Math.min(localBatch, limit));
+    }
+}
@@ -0,0 +1,266 @@
+package com.common.cache.limit;
+
+import com.common.cache.CacheKeyGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分布式限流器
+ * <p>
+ * 每种算法均为单个Lua脚本，一次往返完成判断与扣减；时间由客户端传入，脚本内不调用TIME。
+ * 脚本参数统一为 (limit, window, now, requested, minimum)：尽量授予requested个许可，
+ * 不足minimum时一个也不授予，返回实际授予数。规则开启本地预取时，一次预留一批许可在本地消费。
+ */
+@Slf4j
+public class RateLimiter {
+
+    private static final String MODULE = "limit";
+
+    /**
+     * 本地预取条目超过该数量时清理过期条目
+     */
+    private static final int LOCAL_CLEANUP_THRESHOLD = 10000;
+
+    private static final byte[] TOKEN_BUCKET_SCRIPT = (
+            "local capacity = tonumber(ARGV[1]); local window = tonumber(ARGV[2]); "
+                    + "local now = tonumber(ARGV[3]); local requested = tonumber(ARGV[4]); "
+                    + "local minimum = tonumber(ARGV[5]); "
+                    + "local state = redis.call('hmget', KEYS[1], 'tokens', 'ts'); "
+                    + "local tokens = tonumber(state[1]); local ts = tonumber(state[2]); "
+                    + "if tokens == nil or ts == nil then tokens = capacity; ts = now end; "
+                    + "if now > ts then tokens = math.min(capacity, tokens + (now - ts) * capacity / window); ts = now end; "
+                    + "local granted = math.min(requested, math.floor(tokens)); "
+                    + "if granted < minimum then granted = 0 else tokens = tokens - granted end; "
+                    + "redis.call('hset', KEYS[1], 'tokens', tokens); "
+                    + "redis.call('hset', KEYS[1], 'ts', ts); "
+                    + "redis.call('pexpire', KEYS[1], window * 2); "
+                    + "return granted;").getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] SLIDING_WINDOW_SCRIPT = (
+            "local limit = tonumber(ARGV[1]); local window = tonumber(ARGV[2]); "
+                    + "local now = tonumber(ARGV[3]); local requested = tonumber(ARGV[4]); "
+                    + "local minimum = tonumber(ARGV[5]); "
+                    + "local current = tonumber(redis.call('get', KEYS[1]) or '0'); "
+                    + "local previous = tonumber(redis.call('get', KEYS[2]) or '0'); "
+                    + "local estimate = previous * (window - now % window) / window + current; "
+                    + "local granted = math.min(requested, math.floor(limit - estimate)); "
+                    + "if granted < minimum then return 0 end; "
+                    + "redis.call('incrby', KEYS[1], granted); "
+                    + "redis.call('pexpire', KEYS[1], window * 2); "
+                    + "return granted;").getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] SLIDING_LOG_SCRIPT = (
+            "local limit = tonumber(ARGV[1]); local window = tonumber(ARGV[2]); "
+                    + "local now = tonumber(ARGV[3]); local requested = tonumber(ARGV[4]); "
+                    + "local minimum = tonumber(ARGV[5]); "
+                    + "redis.call('zremrangebyscore', KEYS[1], '-inf', now - window); "
+                    + "local granted = math.min(requested, limit - redis.call('zcard', KEYS[1])); "
+                    + "if granted < minimum then return 0 end; "
+                    + "for i = 1, granted do redis.call('zadd', KEYS[1], now, ARGV[6] .. ':' .. i) end; "
+                    + "redis.call('pexpire', KEYS[1], window); "
+                    + "return granted;").getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheKeyGenerator keyGenerator;
+    private final long localHoldMillis;
+    private final boolean failOpen;
+
+    /**
+     * 滑动日志成员唯一前缀：节点ID + 序号
+     */
+    private final String nodeId = UUID.randomUUID().toString().replace("-", "");
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentHashMap<String, LocalPermits> localPermits = new ConcurrentHashMap<>();
+
+    /**
+     * @param redisTemplate   RedisTemplate
+     * @param keyGenerator    Key生成器，限流Key为 前缀:limit:{name}
+     * @param localHoldMillis 本地预取许可的最长有效期（毫秒），同时不超过规则窗口
+     * @param failOpen        Redis异常时是否放行
+     */
+    public RateLimiter(RedisTemplate<String, Object> redisTemplate, CacheKeyGenerator keyGenerator,
+                       long localHoldMillis, boolean failOpen) {
+        if (redisTemplate == null || keyGenerator == null) {
+            throw new IllegalArgumentException("RedisTemplate与Key生成器不能为空");
+        }
+        this.redisTemplate = redisTemplate;
+        this.keyGenerator = keyGenerator;
+        this.localHoldMillis = Math.max(localHoldMillis, 1);
+        this.failOpen = failOpen;
+    }
+
+    /**
+     * 尝试获取1个许可
+     */
+    public boolean tryAcquire(String name, RateLimitRule rule) {
+        return tryAcquire(name, rule, 1);
+    }
+
+    /**
+     * 尝试获取许可
+     *
+     * @param name    限流对象名称，如 接口名、接口名:用户ID
+     * @param rule    限流规则
+     * @param permits 许可数
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String name, RateLimitRule rule, int permits) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("限流名称不能为空");
+        }
+        if (permits <= 0) {
+            return true;
+        }
+        if (permits > rule.getLimit()) {
+            return false;
+        }
+        if (rule.getLocalBatch() <= 1 || permits >= rule.getLocalBatch()) {
+            return acquireRemote(name, rule, permits, permits) >= permits;
+        }
+
+        String localKey = name + "|" + rule.getAlgorithm();
+        LocalPermits local = localPermits.computeIfAbsent(localKey, k -> new LocalPermits());
+        while (true) {
+            CompletableFuture<Void> refill;
+            boolean leader = false;
+            synchronized (local) {
+                long now = System.currentTimeMillis();
+                if (now < local.expireAt && local.remaining >= permits) {
+                    local.remaining -= permits;
+                    return true;
+                }
+                // 最近一次预取被拒绝，持有期内直接拒绝，不再访问Redis
+                if (now < local.rejectedUntil) {
+                    return false;
+                }
+                refill = local.refill;
+                if (refill == null) {
+                    refill = new CompletableFuture<>();
+                    local.refill = refill;
+                    leader = true;
+                }
+            }
+            if (!leader) {
+                // 同一Key本节点同时只有一个线程去Redis预取，其余线程等待其结果后重新检查本地许可
+                refill.join();
+                continue;
+            }
+            // Redis调用在监视器之外进行，等待者不占用锁
+            long granted = 0L;
+            try {
+                granted = acquireRemote(name, rule, rule.getLocalBatch(), permits);
+            } finally {
+                long holdUntil = System.currentTimeMillis() + Math.min(localHoldMillis, rule.getWindowMillis());
+                synchronized (local) {
+                    local.refill = null;
+                    if (granted < permits) {
+                        local.remaining = 0;
+                        local.rejectedUntil = holdUntil;
+                    } else {
+                        local.remaining = granted - permits;
+                        local.expireAt = holdUntil;
+                        local.rejectedUntil = 0;
+                    }
+                }
+                refill.complete(null);
+            }
+            cleanupLocal();
+            return granted >= permits;
+        }
+    }
+
+    /**
+     * 清除本地预取的许可（未用完的许可不归还Redis，随窗口自然恢复）
+     */
+    public void clearLocal() {
+        localPermits.clear();
+    }
+
+    /**
+     * 执行限流脚本
+     *
+     * @return 实际授予的许可数；Redis异常时按failOpen返回requested或0
+     */
+    private long acquireRemote(String name, RateLimitRule rule, long requested, long minimum) {
+        // 哈希标签保证滑动窗口的前后两个计数Key落在同一槽位
+        String baseKey = keyGenerator.generate(MODULE, "{" + name + "}");
+        long now = System.currentTimeMillis();
+        long window = rule.getWindowMillis();
+        byte[] limitArg = raw(rule.getLimit());
+        byte[] windowArg = raw(window);
+        byte[] nowArg = raw(now);
+        byte[] requestedArg = raw(requested);
+        byte[] minimumArg = raw(minimum);
+        try {
+            Long granted;
+            switch (rule.getAlgorithm()) {
+                case SLIDING_WINDOW:
+                    long index = now / window;
+                    byte[] currentKey = raw(baseKey + ":" + index);
+                    byte[] previousKey = raw(baseKey + ":" + (index - 1));
+                    granted = redisTemplate.execute((RedisCallback<Long>) connection ->
+                            connection.scriptingCommands().eval(SLIDING_WINDOW_SCRIPT, ReturnType.INTEGER, 2,
+                                    currentKey, previousKey, limitArg, windowArg, nowArg, requestedArg, minimumArg));
+                    break;
+                case SLIDING_LOG:
+                    byte[] logKey = raw(baseKey + ":log");
+                    byte[] member = raw(nodeId + ":" + sequence.incrementAndGet());
+                    granted = redisTemplate.execute((RedisCallback<Long>) connection ->
+                            connection.scriptingCommands().eval(SLIDING_LOG_SCRIPT, ReturnType.INTEGER, 1,
+                                    logKey, limitArg, windowArg, nowArg, requestedArg, minimumArg, member));
+                    break;
+                default:
+                    byte[] bucketKey = raw(baseKey + ":bucket");
+                    granted = redisTemplate.execute((RedisCallback<Long>) connection ->
+                            connection.scriptingCommands().eval(TOKEN_BUCKET_SCRIPT, ReturnType.INTEGER, 1,
+                                    bucketKey, limitArg, windowArg, nowArg, requestedArg, minimumArg));
+                    break;
+            }
+            return granted != null ? granted : 0L;
+        } catch (Exception e) {
+            log.error("Redis 限流失败: name={}, algorithm={}", name, rule.getAlgorithm(), e);
+            return failOpen ? requested : 0L;
+        }
+    }
+
+    private void cleanupLocal() {
+        if (localPermits.size() <= LOCAL_CLEANUP_THRESHOLD) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        localPermits.values().removeIf(local -> local.expireAt <= now && local.rejectedUntil <= now);
+    }
+
+    private static byte[] raw(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] raw(long value) {
+        return raw(String.valueOf(value));
+    }
+
+    /**
+     * 本地预留的许可（访问需持有该对象的监视器）
+     */
+    private static final class LocalPermits {
+        long remaining;
+        long expireAt;
+        /**
+         * 预取被拒绝后的本地拒绝截止时间
+         */
+        long rejectedUntil;
+        /**
+         * 进行中的预取，为空表示当前无线程访问Redis
+         */
+        CompletableFuture<Void> refill;
+    }
+}
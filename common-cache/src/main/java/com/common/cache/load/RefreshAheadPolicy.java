@@ -0,0 +1,151 @@
+package com.common.cache.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 提前刷新策略（XFetch 概率提前过期）
+ * <p>
+ * 读取临近过期的Key时，按 {@code -delta * beta * ln(random) >= 剩余TTL} 的概率触发异步回源，
+ * 期间继续返回旧值。delta 为该前缀最近的回源耗时，回源越慢、越接近过期，触发概率越高。
+ */
+@Slf4j
+public class RefreshAheadPolicy {
+
+    private final List<Rule> rules;
+    private final Executor executor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public RefreshAheadPolicy(Collection<Rule> rules, Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("刷新线程池不能为空");
+        }
+        List<Rule> sorted = new ArrayList<>();
+        if (rules != null) {
+            for (Rule rule : rules) {
+                if (rule != null && rule.getKeyPrefix() != null && !rule.getKeyPrefix().isEmpty()) {
+                    sorted.add(rule);
+                }
+            }
+        }
+        // 最长前缀优先匹配
+        sorted.sort((a, b) -> b.getKeyPrefix().length() - a.getKeyPrefix().length());
+        this.rules = sorted;
+        this.executor = executor;
+    }
+
+    /**
+     * 匹配Key对应的刷新规则
+     *
+     * @return 匹配的规则，未配置时返回null
+     */
+    public Rule match(String key) {
+        if (key == null) {
+            return null;
+        }
+        for (Rule rule : rules) {
+            if (key.startsWith(rule.getKeyPrefix())) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断是否需要提前刷新
+     *
+     * @param rule          匹配的规则
+     * @param remainingMillis 剩余过期时间（毫秒）
+     */
+    public boolean shouldRefresh(Rule rule, long remainingMillis) {
+        if (rule == null || remainingMillis <= 0) {
+            return false;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        if (random <= 0) {
+            return true;
+        }
+        double gap = -rule.getDelta() * rule.getBeta() * Math.log(random);
+        return gap >= remainingMillis;
+    }
+
+    /**
+     * 异步刷新；同一Key同时只会有一个刷新任务，线程池满时放弃本次刷新
+     */
+    public void refreshAsync(String key, Runnable task) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("缓存提前刷新失败: key={}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("缓存刷新线程池已满，跳过提前刷新: key={}", key);
+        }
+    }
+
+    /**
+     * 提前刷新规则（按Key前缀配置）
+     */
+    public static class Rule {
+
+        /**
+         * 回源耗时平滑系数
+         */
+        private static final double ALPHA = 0.2;
+
+        private final String keyPrefix;
+        private final double beta;
+        private final AtomicLong delta;
+
+        /**
+         * @param keyPrefix    完整Key前缀
+         * @param beta         提前系数，越大越早刷新，1.0为理论最优
+         * @param initialDelta 初始回源耗时估计（毫秒），首次回源后按实测值平滑更新
+         */
+        public Rule(String keyPrefix, double beta, long initialDelta) {
+            this.keyPrefix = keyPrefix;
+            this.beta = beta > 0 ? beta : 1.0;
+            this.delta = new AtomicLong(Math.max(initialDelta, 1));
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+
+        public double getBeta() {
+            return beta;
+        }
+
+        public long getDelta() {
+            return delta.get();
+        }
+
+        /**
+         * 记录一次回源耗时（指数平滑）
+         */
+        public void recordLoadTime(long millis) {
+            long sample = Math.max(millis, 1);
+            long current;
+            long next;
+            do {
+                current = delta.get();
+                next = Math.max((long) (current * (1 - ALPHA) + sample * ALPHA), 1);
+            } while (!delta.compareAndSet(current, next));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.common.cache.local;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Caffeine的堆内本地缓存（容量 + TTL 淘汰）
+ */
+public class CaffeineLocalCache implements LocalCache {
+
+    private final Cache<String, Object> cache;
+
+    public CaffeineLocalCache(long maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("本地缓存最大条目数必须大于0");
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("本地缓存过期时间必须大于0");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, unit != null ? unit : TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public Object get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll(Collection<String> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
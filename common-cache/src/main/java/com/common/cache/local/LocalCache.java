@@ -0,0 +1,49 @@
+package com.common.cache.local;
+
+import java.util.Collection;
+
+/**
+ * 本地缓存存储抽象接口
+ */
+public interface LocalCache {
+
+    /**
+     * 获取缓存值
+     *
+     * @param key 缓存Key
+     * @return 缓存值，不存在时返回null
+     */
+    Object get(String key);
+
+    /**
+     * 写入缓存值
+     *
+     * @param key   缓存Key
+     * @param value 缓存值（不能为null）
+     */
+    void put(String key, Object value);
+
+    /**
+     * 移除缓存
+     *
+     * @param key 缓存Key
+     */
+    void invalidate(String key);
+
+    /**
+     * 批量移除缓存
+     *
+     * @param keys 缓存Key集合
+     */
+    void invalidateAll(Collection<String> keys);
+
+    /**
+     * 清空缓存
+     */
+    void clear();
+
+    /**
+     * 当前缓存条目数（近似值）
+     */
+    long size();
+}
@@ -0,0 +1,17 @@
+package com.common.cache.local;
+
+/**
+ * 本地一级缓存存储方式
+ */
+public enum LocalStoreType {
+
+    /**
+     * 堆内（Caffeine），直接保存对象，读取无需反序列化
+     */
+    HEAP,
+
+    /**
+     * 堆外（直接内存），保存序列化后的字节，不占用Java堆
+     */
+    OFF_HEAP
+}
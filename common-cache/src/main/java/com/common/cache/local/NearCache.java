@@ -0,0 +1,271 @@
+package com.common.cache.local;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 近端缓存（L1），位于Redis之前
+ * <p>
+ * 本节点写操作会清除本地副本，并通过Redis发布订阅广播失效消息，其他节点收到后清除各自的本地副本。
+ */
+@Slf4j
+public class NearCache implements MessageListener {
+
+    private static final char SEPARATOR = '\n';
+    private static final int STAMP_STRIPES = 64;
+
+    private final LocalCache store;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final byte[] channel;
+    private final String nodeId;
+    private final List<String> keyPrefixes;
+
+    /**
+     * 分段失效戳：读取Redis前记录，回填本地缓存时校验，避免并发失效后回填旧值
+     */
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 其他节点失效消息的附加处理（如清除固定的热点值）
+     */
+    private volatile Consumer<Collection<String>> remoteInvalidationListener;
+
+    public NearCache(LocalCache store, RedisTemplate<String, Object> redisTemplate,
+                     String channel, Collection<String> keyPrefixes) {
+        if (store == null) {
+            throw new IllegalArgumentException("本地缓存存储不能为空");
+        }
+        if (channel == null || channel.isEmpty()) {
+            throw new IllegalArgumentException("失效广播频道不能为空");
+        }
+        this.store = store;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        this.nodeId = UUID.randomUUID().toString().replace("-", "");
+        this.keyPrefixes = keyPrefixes != null ? new ArrayList<>(keyPrefixes) : Collections.emptyList();
+    }
+
+    /**
+     * 设置收到其他节点失效消息时的附加处理
+     * <p>
+     * 设置后广播消息包含全部写入的Key，而不只是参与本地缓存的Key，以便其他节点清除对应的本地状态。
+     */
+    public void setRemoteInvalidationListener(Consumer<Collection<String>> listener) {
+        this.remoteInvalidationListener = listener;
+    }
+
+    /**
+     * 判断Key是否参与本地缓存
+     */
+    public boolean isCacheable(String key) {
+        if (key == null) {
+            return false;
+        }
+        if (keyPrefixes.isEmpty()) {
+            return true;
+        }
+        for (String prefix : keyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 读取本地缓存（会统计命中/未命中）
+     */
+    public Object get(String key) {
+        Object value = store.get(key);
+        if (value != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 获取当前失效戳，在读取Redis之前调用
+     */
+    public long stamp(String key) {
+        return stamps.get(stripe(key));
+    }
+
+    /**
+     * 回填本地缓存；若读取期间该Key所在分段发生过失效则放弃回填
+     */
+    public void put(String key, Object value, long stamp) {
+        if (value == null || !isCacheable(key)) {
+            return;
+        }
+        store.put(key, value);
+        if (stamps.get(stripe(key)) != stamp) {
+            store.invalidate(key);
+        }
+    }
+
+    /**
+     * 失效本地副本并广播到其他节点
+     */
+    public void invalidate(String key) {
+        if (isCacheable(key)) {
+            invalidate(Collections.singletonList(key));
+        }
+    }
+
+    /**
+     * 批量失效本地副本并广播到其他节点
+     */
+    public void invalidate(Collection<String> keys) {
+        byte[] payload = invalidateForBroadcast(keys);
+        if (payload != null) {
+            publish(payload, keys);
+        }
+    }
+
+    /**
+     * 失效本地副本并返回待广播的消息体，由调用方自行发布（如响应式客户端以非阻塞方式发布到 {@link #getChannel()}）
+     *
+     * @param keys 缓存Key集合
+     * @return 消息体；没有需要广播的Key时返回null
+     */
+    public byte[] invalidateForBroadcast(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return null;
+        }
+        List<String> cacheable = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (isCacheable(key)) {
+                cacheable.add(key);
+            }
+        }
+        if (!cacheable.isEmpty()) {
+            invalidateLocal(cacheable);
+        }
+        Collection<String> broadcast = remoteInvalidationListener != null ? keys : cacheable;
+        if (broadcast.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(nodeId);
+        for (String key : broadcast) {
+            sb.append(SEPARATOR).append(key);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 仅失效本地副本
+     */
+    public void invalidateLocal(Collection<String> keys) {
+        for (String key : keys) {
+            stamps.incrementAndGet(stripe(key));
+        }
+        store.invalidateAll(keys);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int idx = body.indexOf(SEPARATOR);
+            if (idx < 0) {
+                return;
+            }
+            // 忽略本节点发出的消息
+            if (nodeId.equals(body.substring(0, idx))) {
+                return;
+            }
+            List<String> keys = new ArrayList<>();
+            int start = idx + 1;
+            while (start <= body.length()) {
+                int end = body.indexOf(SEPARATOR, start);
+                if (end < 0) {
+                    end = body.length();
+                }
+                if (end > start) {
+                    keys.add(body.substring(start, end));
+                }
+                start = end + 1;
+            }
+            if (!keys.isEmpty()) {
+                invalidateLocal(keys);
+                Consumer<Collection<String>> listener = remoteInvalidationListener;
+                if (listener != null) {
+                    listener.accept(keys);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("处理本地缓存失效消息失败", e);
+        }
+    }
+
+    private void publish(byte[] payload, Collection<String> keys) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, payload));
+        } catch (Exception e) {
+            log.error("广播本地缓存失效消息失败: keys={}", keys, e);
+        }
+    }
+
+    private int stripe(String key) {
+        return (key.hashCode() & 0x7fffffff) % STAMP_STRIPES;
+    }
+
+    /**
+     * 清空本地缓存（不广播）
+     */
+    public void clear() {
+        for (int i = 0; i < STAMP_STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        store.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 命中率（0~1）
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0D : (double) hits / total;
+    }
+
+    public long size() {
+        return store.size();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 失效广播频道
+     */
+    public byte[] getChannel() {
+        return channel.clone();
+    }
+}
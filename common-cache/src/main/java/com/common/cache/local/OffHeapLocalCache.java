@@ -0,0 +1,296 @@
+package com.common.cache.local;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 堆外本地缓存（容量 + TTL 淘汰）
+ * <p>
+ * 值按序列化后的字节存放在直接内存中，大量缓存数据不占用Java堆，不增加GC停顿。
+ * 按Key哈希分为 segments 段，每段一块固定大小的直接内存，按写入顺序循环使用：
+ * 空间不足时从最早写入的条目开始淘汰（FIFO），条目数超过上限时同样淘汰最早的条目。
+ * <ul>
+ *     <li>每段一把锁，锁内只做索引查找与内存拷贝，反序列化在锁外执行</li>
+ *     <li>每次读取返回新反序列化的对象，调用方修改不会影响缓存内容</li>
+ *     <li>覆盖或失效的条目只从索引移除，占用的空间在写入位置循环经过时回收</li>
+ *     <li>序列化后超过单段容量的值不缓存</li>
+ * </ul>
+ * 堆外总容量受 {@code -XX:MaxDirectMemorySize} 限制（默认与最大堆相同）。
+ */
+@Slf4j
+public class OffHeapLocalCache implements LocalCache {
+
+    private final RedisSerializer<Object> serializer;
+    private final Segment[] segments;
+    private final int mask;
+    private final long ttlNanos;
+
+    /**
+     * @param serializer    值序列化器
+     * @param capacityBytes 堆外总容量（字节）
+     * @param segments      分段数，向上取整为2的幂
+     * @param maximumSize   最大条目数
+     * @param ttl           过期时间
+     * @param unit          时间单位
+     */
+    public OffHeapLocalCache(RedisSerializer<Object> serializer, long capacityBytes, int segments,
+                             long maximumSize, long ttl, TimeUnit unit) {
+        if (serializer == null) {
+            throw new IllegalArgumentException("序列化器不能为空");
+        }
+        if (capacityBytes <= 0 || maximumSize <= 0) {
+            throw new IllegalArgumentException("堆外缓存容量与最大条目数必须大于0");
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("本地缓存过期时间必须大于0");
+        }
+        int count = Integer.highestOneBit(Math.max(segments, 1) - 1) << 1;
+        count = Math.max(count, 1);
+        // 单段容量不超过int范围
+        while (capacityBytes / count > Integer.MAX_VALUE - 8) {
+            count <<= 1;
+        }
+        this.serializer = serializer;
+        this.segments = new Segment[count];
+        this.mask = count - 1;
+        this.ttlNanos = (unit != null ? unit : TimeUnit.SECONDS).toNanos(ttl);
+        int segmentBytes = (int) Math.max(capacityBytes / count, 1);
+        int segmentEntries = (int) Math.min(Math.max(maximumSize / count, 1), Integer.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(segmentBytes, segmentEntries);
+        }
+    }
+
+    @Override
+    public Object get(String key) {
+        byte[] bytes = segmentFor(key).read(key, System.nanoTime());
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return serializer.deserialize(bytes);
+        } catch (Exception e) {
+            log.warn("堆外缓存反序列化失败: key={}", key, e);
+            invalidate(key);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        byte[] bytes;
+        try {
+            bytes = serializer.serialize(value);
+        } catch (Exception e) {
+            log.warn("堆外缓存序列化失败: key={}, type={}", key, value.getClass().getName(), e);
+            return;
+        }
+        if (bytes == null || bytes.length == 0) {
+            return;
+        }
+        segmentFor(key).write(key, bytes, System.nanoTime() + ttlNanos);
+    }
+
+    @Override
+    public void invalidate(String key) {
+        segmentFor(key).remove(key);
+    }
+
+    @Override
+    public void invalidateAll(Collection<String> keys) {
+        for (String key : keys) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 已写入数据占用的堆外字节数（不含已失效但尚未回收的空间）
+     */
+    public long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.usedBytes();
+        }
+        return used;
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final int offset;
+        private final int length;
+        private final long expireAt;
+
+        Entry(String key, int offset, int length, long expireAt) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 一块直接内存按写入顺序循环使用；order 按写入顺序保存全部条目（含已失效的），队首即下一个被覆盖的区域
+     */
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ByteBuffer slab;
+        private final int maxEntries;
+        private final Map<String, Entry> index = new HashMap<>();
+        private final ArrayDeque<Entry> order = new ArrayDeque<>();
+        private int writePos;
+        private long usedBytes;
+
+        Segment(int bytes, int maxEntries) {
+            this.slab = ByteBuffer.allocateDirect(bytes);
+            this.maxEntries = maxEntries;
+        }
+
+        byte[] read(String key, long now) {
+            lock.lock();
+            try {
+                Entry entry = index.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expireAt - now <= 0) {
+                    unlink(entry);
+                    return null;
+                }
+                byte[] bytes = new byte[entry.length];
+                slab.position(entry.offset);
+                slab.get(bytes, 0, entry.length);
+                return bytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void write(String key, byte[] bytes, long expireAt) {
+            int length = bytes.length;
+            if (length > slab.capacity()) {
+                remove(key);
+                return;
+            }
+            lock.lock();
+            try {
+                Entry previous = index.remove(key);
+                if (previous != null) {
+                    usedBytes -= previous.length;
+                }
+                if (writePos + length > slab.capacity()) {
+                    // 尾部剩余空间不足：淘汰位于尾部的条目后回到起点
+                    evictFrom(writePos, slab.capacity());
+                    writePos = 0;
+                }
+                evictFrom(writePos, writePos + length);
+                while (index.size() >= maxEntries && !order.isEmpty()) {
+                    unlink(order.pollFirst());
+                }
+                slab.position(writePos);
+                slab.put(bytes);
+                Entry entry = new Entry(key, writePos, length, expireAt);
+                index.put(key, entry);
+                order.addLast(entry);
+                usedBytes += length;
+                writePos += length;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String key) {
+            lock.lock();
+            try {
+                Entry entry = index.remove(key);
+                if (entry != null) {
+                    usedBytes -= entry.length;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                index.clear();
+                order.clear();
+                writePos = 0;
+                usedBytes = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return index.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long usedBytes() {
+            lock.lock();
+            try {
+                return usedBytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 淘汰与 [from, to) 重叠的条目；条目按地址循环有序，只需检查队首
+         */
+        private void evictFrom(int from, int to) {
+            Entry head;
+            while ((head = order.peekFirst()) != null && head.offset < to && head.offset + head.length > from) {
+                order.pollFirst();
+                if (index.get(head.key) == head) {
+                    index.remove(head.key);
+                    usedBytes -= head.length;
+                }
+            }
+        }
+
+        /**
+         * 从索引移除（空间由写入位置循环经过时回收）
+         */
+        private void unlink(Entry entry) {
+            if (entry != null && index.get(entry.key) == entry) {
+                index.remove(entry.key);
+                usedBytes -= entry.length;
+            }
+        }
+    }
+}
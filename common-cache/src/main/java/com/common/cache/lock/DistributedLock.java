@@ -0,0 +1,59 @@
+package com.common.cache.lock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式锁（可重入，按 节点 + 线程 识别持有者）
+ */
+public interface DistributedLock {
+
+    /**
+     * 锁名称
+     */
+    String getName();
+
+    /**
+     * 尝试获取锁，等待期间挂起直到收到释放通知或持有者租期到期，不做自旋轮询
+     *
+     * @param waitTime  最长等待时间，小于等于0表示不等待
+     * @param leaseTime 租期，小于等于0表示由看门狗自动续期直到释放
+     * @param unit      时间单位
+     * @return 是否获取成功；Redis异常时返回false
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * 尝试立即获取锁（看门狗续期）
+     *
+     * @return 是否获取成功
+     */
+    boolean tryLock();
+
+    /**
+     * 阻塞获取锁（看门狗续期）
+     *
+     * @throws IllegalStateException Redis异常导致无法获取锁
+     */
+    void lock();
+
+    /**
+     * 释放锁；重入时需释放相同次数
+     *
+     * @throws IllegalMonitorStateException 当前线程未持有该锁
+     * @throws IllegalStateException        Redis异常，重入计数不变，可重试
+     */
+    void unlock();
+
+    /**
+     * 当前线程是否持有该锁
+     */
+    boolean isHeldByCurrentThread();
+
+    /**
+     * 当前线程持有锁对应的栅栏令牌（单调递增），写下游存储时携带以拒绝过期持有者的写入
+     *
+     * @return 栅栏令牌；未持有锁时返回-1
+     */
+    long getFencingToken();
+}
@@ -0,0 +1,199 @@
+package com.common.cache.lock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的可重入分布式锁，由 {@link RedisLockClient#getLock(String)} 创建
+ */
+@Slf4j
+public class RedisDistributedLock implements DistributedLock {
+
+    /**
+     * 持有者未设置过期或剩余时间未知时的最长挂起时间（毫秒）
+     */
+    private static final long MAX_PARK_MILLIS = 100;
+
+    private final RedisLockClient client;
+    private final String name;
+    private final String lockKey;
+
+    RedisDistributedLock(RedisLockClient client, String name, String lockKey) {
+        this.client = client;
+        this.name = name;
+        this.lockKey = lockKey;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long waitMillis = waitTime > 0 ? unit.toMillis(waitTime) : 0;
+        long leaseMillis = leaseTime > 0 ? unit.toMillis(leaseTime) : -1;
+        try {
+            return acquire(waitMillis, leaseMillis, true);
+        } catch (LockAcquireException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        try {
+            return acquire(0, -1, false);
+        } catch (LockAcquireException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void lock() {
+        try {
+            acquire(-1, -1, false);
+        } catch (LockAcquireException e) {
+            throw new IllegalStateException("获取分布式锁失败: " + name, e.getCause());
+        } catch (InterruptedException e) {
+            // 不可中断模式下不会抛出
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void unlock() {
+        RedisLockClient.Hold hold = client.getHold(lockKey);
+        if (hold == null) {
+            throw new IllegalMonitorStateException("当前线程未持有分布式锁: " + name);
+        }
+        long result;
+        try {
+            result = client.release(lockKey, client.owner());
+        } catch (Exception e) {
+            // 释放结果未知，保留重入计数以便重试；最后一层时停止看门狗，锁最迟在租期到期后释放
+            if (hold.count == 1) {
+                hold.cancelRenewal();
+            }
+            log.error("释放分布式锁失败: key={}", lockKey, e);
+            throw new IllegalStateException("释放分布式锁失败: " + name, e);
+        }
+        if (result < 0) {
+            client.removeHold(lockKey);
+            throw new IllegalMonitorStateException("分布式锁已过期或被其他持有者获取: " + name);
+        }
+        // Redis释放成功后才减少本地计数，1表示已完全释放
+        if (--hold.count <= 0 || result == 1) {
+            client.removeHold(lockKey);
+        }
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread() {
+        return client.getHold(lockKey) != null;
+    }
+
+    @Override
+    public long getFencingToken() {
+        RedisLockClient.Hold hold = client.getHold(lockKey);
+        return hold != null ? hold.token : -1L;
+    }
+
+    /**
+     * @param waitMillis    最长等待毫秒，0不等待，负数无限等待
+     * @param leaseMillis   租期毫秒，负数使用看门狗
+     * @param interruptible 是否响应中断
+     */
+    private boolean acquire(long waitMillis, long leaseMillis, boolean interruptible)
+            throws InterruptedException, LockAcquireException {
+        String owner = client.owner();
+        long result = attempt(owner, leaseMillis);
+        if (result > 0) {
+            return true;
+        }
+        if (waitMillis == 0) {
+            return false;
+        }
+
+        long deadline = waitMillis > 0 ? System.currentTimeMillis() + waitMillis : Long.MAX_VALUE;
+        RedisLockClient.WaitEntry entry = client.subscribe(lockKey);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                // 登记等待后再尝试一次，避免错过登记前发出的释放通知
+                result = attempt(owner, leaseMillis);
+                if (result > 0) {
+                    return true;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                long holderTtl = -result - 1;
+                long park = holderTtl > 0 ? holderTtl : MAX_PARK_MILLIS;
+                if (!client.isNotifiable()) {
+                    park = Math.min(park, MAX_PARK_MILLIS);
+                }
+                park = Math.min(park, remaining);
+                try {
+                    entry.signal.tryAcquire(park, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    if (interruptible) {
+                        throw e;
+                    }
+                    interrupted = true;
+                }
+            }
+        } finally {
+            client.unsubscribe(lockKey);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 执行一次加锁，成功时记录持有状态并按需启动看门狗
+     *
+     * @return 大于0为令牌，否则为 -(持有者剩余毫秒 + 1)
+     */
+    private long attempt(String owner, long leaseMillis) throws LockAcquireException {
+        long lease = leaseMillis > 0 ? leaseMillis : client.getWatchdogTimeout();
+        long result;
+        try {
+            result = client.acquire(lockKey, owner, lease);
+        } catch (Exception e) {
+            log.error("获取分布式锁失败: key={}", lockKey, e);
+            throw new LockAcquireException(e);
+        }
+        if (result > 0) {
+            RedisLockClient.Hold hold = client.getHold(lockKey);
+            if (hold == null || hold.token != result) {
+                // 首次获取，或原锁已过期后重新获取
+                if (hold != null) {
+                    hold.cancelRenewal();
+                }
+                hold = new RedisLockClient.Hold(result);
+                client.putHold(lockKey, hold);
+            } else {
+                hold.count++;
+            }
+            if (leaseMillis <= 0) {
+                client.startRenewal(lockKey, owner, hold);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Redis异常，区别于正常的获取超时
+     */
+    private static final class LockAcquireException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        LockAcquireException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.common.cache.lock;
+
+import com.common.cache.CacheKeyGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis分布式锁客户端
+ * <p>
+ * 锁以Hash存储：field为持有者（节点ID:线程ID），value为重入次数，另有 {@code __fence} 字段记录栅栏令牌；
+ * 令牌来自同槽位的 {@code <lockKey>:fence} 计数器，只增不减。加锁、解锁、续期均通过Lua脚本原子执行，
+ * 解锁时在脚本内发布通知，本节点的等待者据此被唤醒，所有锁共用一个订阅频道与一个看门狗调度器。
+ */
+@Slf4j
+public class RedisLockClient implements MessageListener, SubscriptionListener {
+
+    private static final String MODULE = "lock";
+    private static final String FENCE_SUFFIX = ":fence";
+
+    /**
+     * 加锁：成功返回栅栏令牌（大于0），失败返回 -(持有者剩余毫秒 + 1)
+     */
+    private static final byte[] ACQUIRE_SCRIPT = (
+            "if redis.call('exists', KEYS[1]) == 0 then "
+                    + "local token = redis.call('incr', KEYS[2]); "
+                    + "redis.call('hset', KEYS[1], ARGV[2], 1); "
+                    + "redis.call('hset', KEYS[1], '__fence', token); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[1]); "
+                    + "return token; "
+                    + "end; "
+                    + "if redis.call('hexists', KEYS[1], ARGV[2]) == 1 then "
+                    + "redis.call('hincrby', KEYS[1], ARGV[2], 1); "
+                    + "redis.call('pexpire', KEYS[1], ARGV[1]); "
+                    + "return tonumber(redis.call('hget', KEYS[1], '__fence')); "
+                    + "end; "
+                    + "return -(redis.call('pttl', KEYS[1]) + 1);").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 解锁：未持有返回-1，重入计数减一返回0，完全释放并发布通知返回1
+     */
+    private static final byte[] RELEASE_SCRIPT = (
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return -1 end; "
+                    + "local count = redis.call('hincrby', KEYS[1], ARGV[1], -1); "
+                    + "if count > 0 then return 0 end; "
+                    + "redis.call('del', KEYS[1]); "
+                    + "redis.call('publish', ARGV[2], KEYS[1]); "
+                    + "return 1;").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 续期：仍由该持有者持有时刷新租期返回1，否则返回0
+     */
+    private static final byte[] RENEW_SCRIPT = (
+            "if redis.call('hexists', KEYS[1], ARGV[2]) == 1 then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[1]); return 1 end; "
+                    + "return 0;").getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheKeyGenerator keyGenerator;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String channel;
+    private final byte[] rawChannel;
+    private final long watchdogTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final String clientId;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    /**
+     * Redis已确认订阅释放通知频道；注册监听是异步的，确认之前发布的通知会丢失
+     */
+    private volatile boolean listening;
+
+    /**
+     * 本节点等待中的锁：lockKey -> 等待信号
+     */
+    private final ConcurrentHashMap<String, WaitEntry> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点持有中的锁：lockKey|线程ID -> 持有状态
+     */
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * @param redisTemplate     RedisTemplate
+     * @param keyGenerator      Key生成器，锁Key为 前缀:lock:{name}
+     * @param listenerContainer 监听容器（可为null，此时等待者退化为定时重试）
+     * @param channel           释放通知频道
+     * @param watchdogTimeout   看门狗租期（毫秒）
+     * @param watchdogThreads   看门狗调度线程数
+     */
+    public RedisLockClient(RedisTemplate<String, Object> redisTemplate, CacheKeyGenerator keyGenerator,
+                           RedisMessageListenerContainer listenerContainer, String channel,
+                           long watchdogTimeout, int watchdogThreads) {
+        if (redisTemplate == null || keyGenerator == null) {
+            throw new IllegalArgumentException("RedisTemplate与Key生成器不能为空");
+        }
+        if (channel == null || channel.isEmpty()) {
+            throw new IllegalArgumentException("释放通知频道不能为空");
+        }
+        if (watchdogTimeout < 3) {
+            throw new IllegalArgumentException("看门狗租期过短: " + watchdogTimeout);
+        }
+        this.redisTemplate = redisTemplate;
+        this.keyGenerator = keyGenerator;
+        this.listenerContainer = listenerContainer;
+        this.channel = channel;
+        this.rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+        this.watchdogTimeout = watchdogTimeout;
+        this.clientId = UUID.randomUUID().toString().replace("-", "");
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(watchdogThreads, 1), r -> {
+            Thread thread = new Thread(r, "cache-lock-watchdog-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+    }
+
+    /**
+     * 获取锁对象（轻量，可随用随取）
+     *
+     * @param name 锁名称
+     * @return 分布式锁
+     */
+    public DistributedLock getLock(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("锁名称不能为空");
+        }
+        // 哈希标签保证锁Key与令牌Key落在同一槽位
+        String lockKey = keyGenerator.generate(MODULE, "{" + name + "}");
+        return new RedisDistributedLock(this, name, lockKey);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String lockKey = new String(message.getBody(), StandardCharsets.UTF_8);
+        WaitEntry entry = waiters.get(lockKey);
+        if (entry != null) {
+            entry.signal.release();
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (Arrays.equals(channel, rawChannel)) {
+            listening = true;
+        }
+    }
+
+    @Override
+    public void onChannelUnsubscribed(byte[] channel, long count) {
+        if (Arrays.equals(channel, rawChannel)) {
+            listening = false;
+        }
+    }
+
+    @Override
+    public void onPatternSubscribed(byte[] pattern, long count) {
+    }
+
+    @Override
+    public void onPatternUnsubscribed(byte[] pattern, long count) {
+    }
+
+    /**
+     * 关闭看门狗调度器（容器销毁时调用）
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // ==================== 供锁对象调用 ====================
+
+    String owner() {
+        return clientId + ":" + Thread.currentThread().getId();
+    }
+
+    long getWatchdogTimeout() {
+        return watchdogTimeout;
+    }
+
+    /**
+     * 执行加锁脚本
+     */
+    long acquire(String lockKey, String owner, long leaseMillis) {
+        Long result = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(ACQUIRE_SCRIPT, ReturnType.INTEGER, 2,
+                        raw(lockKey), raw(lockKey + FENCE_SUFFIX), raw(String.valueOf(leaseMillis)), raw(owner)));
+        return result != null ? result : 0L;
+    }
+
+    /**
+     * 执行解锁脚本
+     */
+    long release(String lockKey, String owner) {
+        Long result = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1,
+                        raw(lockKey), raw(owner), rawChannel));
+        return result != null ? result : -1L;
+    }
+
+    Hold getHold(String lockKey) {
+        return holds.get(holdKey(lockKey));
+    }
+
+    void putHold(String lockKey, Hold hold) {
+        holds.put(holdKey(lockKey), hold);
+    }
+
+    void removeHold(String lockKey) {
+        Hold hold = holds.remove(holdKey(lockKey));
+        if (hold != null) {
+            hold.cancelRenewal();
+        }
+    }
+
+    /**
+     * 启动看门狗，每隔1/3租期续期一次，锁丢失时自动停止
+     */
+    void startRenewal(String lockKey, String owner, Hold hold) {
+        if (hold.renewal != null) {
+            return;
+        }
+        long period = watchdogTimeout / 3;
+        byte[] rawKey = raw(lockKey);
+        byte[] rawLease = raw(String.valueOf(watchdogTimeout));
+        byte[] rawOwner = raw(owner);
+        hold.renewal = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                Long renewed = redisTemplate.execute((RedisCallback<Long>) connection ->
+                        connection.scriptingCommands().eval(RENEW_SCRIPT, ReturnType.INTEGER, 1,
+                                rawKey, rawLease, rawOwner));
+                if (renewed == null || renewed == 0L) {
+                    log.warn("分布式锁已丢失，停止续期: key={}, owner={}", lockKey, owner);
+                    hold.cancelRenewal();
+                }
+            } catch (Exception e) {
+                // 保留任务，下个周期重试
+                log.error("分布式锁续期失败: key={}", lockKey, e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 登记等待者；首次等待时才向监听容器注册订阅
+     */
+    WaitEntry subscribe(String lockKey) {
+        if (listenerContainer != null && subscribed.compareAndSet(false, true)) {
+            try {
+                listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+            } catch (Exception e) {
+                subscribed.set(false);
+                log.error("订阅分布式锁释放通知失败: channel={}", channel, e);
+            }
+        }
+        return waiters.compute(lockKey, (k, entry) -> {
+            WaitEntry current = entry != null ? entry : new WaitEntry();
+            current.refs++;
+            return current;
+        });
+    }
+
+    void unsubscribe(String lockKey) {
+        waiters.computeIfPresent(lockKey, (k, entry) -> --entry.refs > 0 ? entry : null);
+    }
+
+    /**
+     * 是否可依赖释放通知唤醒：订阅经Redis确认之前等待者按短间隔轮询
+     */
+    boolean isNotifiable() {
+        return listening;
+    }
+
+    private String holdKey(String lockKey) {
+        return lockKey + "|" + Thread.currentThread().getId();
+    }
+
+    private static byte[] raw(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 等待信号：每次释放通知唤醒一个等待者
+     */
+    static final class WaitEntry {
+        final Semaphore signal = new Semaphore(0);
+        int refs;
+    }
+
+    /**
+     * 本线程的持有状态（仅持有线程修改计数）
+     */
+    static final class Hold {
+        final long token;
+        int count = 1;
+        volatile ScheduledFuture<?> renewal;
+
+        Hold(long token) {
+            this.token = token;
+        }
+
+        void cancelRenewal() {
+            ScheduledFuture<?> future = renewal;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.common.cache.metrics;
+
+/**
+ * 缓存指标记录接口，默认实现不做任何记录
+ * <p>
+ * 实现类需保证线程安全且开销足够小，每次Redis操作都会调用。
+ */
+public interface CacheMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    CacheMetrics NOOP = new CacheMetrics() {
+    };
+
+    /**
+     * 记录一次Redis操作
+     *
+     * @param operation 操作名，如 get、multiSet
+     * @param key       缓存Key（批量操作为第一个Key，可能为null）
+     * @param nanos     耗时（纳秒）
+     * @param success   是否成功
+     */
+    default void recordOperation(String operation, String key, long nanos, boolean success) {
+    }
+
+    /**
+     * 记录一次缓存读取的命中情况（本地一级缓存命中也计为命中）
+     *
+     * @param key 缓存Key
+     * @param hit 是否命中
+     */
+    default void recordGet(String key, boolean hit) {
+    }
+
+    /**
+     * 记录序列化后的值大小
+     *
+     * @param key   缓存Key（无法确定时为null）
+     * @param write true为写入，false为读取
+     * @param bytes 字节数
+     */
+    default void recordValueSize(String key, boolean write, int bytes) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.common.cache.metrics;
+
+/**
+ * 当前线程正在操作的缓存Key，供序列化器按Key模块记录值大小
+ * <p>
+ * 仅同步调用链有效；响应式/异步操作在I/O线程上序列化，取不到Key。
+ */
+public final class CacheMetricsContext {
+
+    private static final ThreadLocal<String> CURRENT_KEY = new ThreadLocal<>();
+
+    private CacheMetricsContext() {
+    }
+
+    /**
+     * 设置当前Key
+     *
+     * @return 之前的Key，调用方结束时通过 {@link #restore(String)} 恢复
+     */
+    public static String enter(String key) {
+        String previous = CURRENT_KEY.get();
+        CURRENT_KEY.set(key);
+        return previous;
+    }
+
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT_KEY.remove();
+        } else {
+            CURRENT_KEY.set(previous);
+        }
+    }
+
+    public static String currentKey() {
+        return CURRENT_KEY.get();
+    }
+}
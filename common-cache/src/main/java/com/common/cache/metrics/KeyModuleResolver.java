@@ -0,0 +1,65 @@
+package com.common.cache.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 从缓存Key中解析模块名，作为指标标签
+ * <p>
+ * 按 {@code CacheKeyGenerator} 的布局 前缀[:租户][:模块][:业务键] 取模块段；
+ * 不同模块数超过上限后，新出现的模块统一记为 {@value #OTHER}，防止标签基数失控。
+ */
+public class KeyModuleResolver {
+
+    public static final String UNKNOWN = "unknown";
+    public static final String OTHER = "other";
+
+    private final String prefix;
+    private final String separator;
+    private final boolean tenantAware;
+    private final int maxModules;
+    private final Set<String> modules = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param keyPrefix   Key前缀
+     * @param separator   分隔符
+     * @param tenantAware Key是否带租户段（为true时跳过前缀后的第一段）
+     * @param maxModules  最多记录的模块数
+     */
+    public KeyModuleResolver(String keyPrefix, String separator, boolean tenantAware, int maxModules) {
+        this.separator = separator == null || separator.isEmpty() ? ":" : separator;
+        this.prefix = keyPrefix == null || keyPrefix.isEmpty() ? "" : keyPrefix + this.separator;
+        this.tenantAware = tenantAware;
+        this.maxModules = Math.max(maxModules, 1);
+    }
+
+    public String resolve(String key) {
+        if (key == null || !key.startsWith(prefix)) {
+            return UNKNOWN;
+        }
+        int start = prefix.length();
+        if (tenantAware) {
+            int tenantEnd = key.indexOf(separator, start);
+            if (tenantEnd < 0) {
+                return UNKNOWN;
+            }
+            start = tenantEnd + separator.length();
+        }
+        int end = key.indexOf(separator, start);
+        if (end < 0) {
+            end = key.length();
+        }
+        if (end <= start) {
+            return UNKNOWN;
+        }
+        String module = key.substring(start, end);
+        if (modules.contains(module)) {
+            return module;
+        }
+        if (modules.size() >= maxModules) {
+            return OTHER;
+        }
+        modules.add(module);
+        return module;
+    }
+}
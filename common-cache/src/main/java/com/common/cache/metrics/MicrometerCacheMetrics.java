@@ -0,0 +1,125 @@
+package com.common.cache.metrics;
+
+import com.common.cache.local.NearCache;
+import com.common.cache.ttl.ExpiryHistogram;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Micrometer的缓存指标
+ * <ul>
+ *     <li>{@code cache.redis.operations}：Redis操作耗时，标签 operation / module / result(success|error)</li>
+ *     <li>{@code cache.gets}：缓存读取次数，标签 module / result(hit|miss)</li>
+ *     <li>{@code cache.value.size}：序列化后的值大小（字节），标签 module / direction(read|write)</li>
+ *     <li>{@code cache.near.*}：本地一级缓存命中、未命中与条目数</li>
+ *     <li>{@code cache.expiry.*}：TTL打散后本节点写入的Key在未来各窗口的过期数量，标签 offset</li>
+ * </ul>
+ * 分位数直方图通过Spring Boot的 {@code management.metrics.distribution.*} 配置开启。
+ */
+public class MicrometerCacheMetrics implements CacheMetrics {
+
+    private static final String OPERATIONS = "cache.redis.operations";
+    private static final String GETS = "cache.gets";
+    private static final String VALUE_SIZE = "cache.value.size";
+
+    private final MeterRegistry registry;
+    private final KeyModuleResolver moduleResolver;
+
+    /**
+     * 已注册的指标，避免每次调用都构建标签
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Timer[]>> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter[]> gets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DistributionSummary[]> sizes = new ConcurrentHashMap<>();
+
+    public MicrometerCacheMetrics(MeterRegistry registry, KeyModuleResolver moduleResolver) {
+        this.registry = registry;
+        this.moduleResolver = moduleResolver;
+    }
+
+    @Override
+    public void recordOperation(String operation, String key, long nanos, boolean success) {
+        String module = moduleResolver.resolve(key);
+        Timer[] pair = timers.computeIfAbsent(operation, op -> new ConcurrentHashMap<>())
+                .computeIfAbsent(module, m -> new Timer[]{
+                        timer(operation, m, "success"),
+                        timer(operation, m, "error")
+                });
+        pair[success ? 0 : 1].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordGet(String key, boolean hit) {
+        Counter[] pair = gets.computeIfAbsent(moduleResolver.resolve(key), m -> new Counter[]{
+                Counter.builder(GETS).tag("module", m).tag("result", "hit")
+                        .description("缓存读取次数").register(registry),
+                Counter.builder(GETS).tag("module", m).tag("result", "miss")
+                        .description("缓存读取次数").register(registry)
+        });
+        pair[hit ? 0 : 1].increment();
+    }
+
+    @Override
+    public void recordValueSize(String key, boolean write, int bytes) {
+        DistributionSummary[] pair = sizes.computeIfAbsent(moduleResolver.resolve(key), m -> new DistributionSummary[]{
+                size(m, "read"),
+                size(m, "write")
+        });
+        pair[write ? 1 : 0].record(bytes);
+    }
+
+    /**
+     * 注册本地一级缓存指标
+     */
+    public void bindNearCache(NearCache nearCache) {
+        FunctionCounter.builder("cache.near.gets", nearCache, NearCache::getHitCount)
+                .tag("result", "hit").description("本地一级缓存读取次数").register(registry);
+        FunctionCounter.builder("cache.near.gets", nearCache, NearCache::getMissCount)
+                .tag("result", "miss").description("本地一级缓存读取次数").register(registry);
+        Gauge.builder("cache.near.size", nearCache, NearCache::size)
+                .description("本地一级缓存条目数").register(registry);
+    }
+
+    /**
+     * 注册过期分布指标：{@code offset} 为从当前窗口起的窗口序号，每个窗口一个Gauge
+     *
+     * @param histogram 过期分布直方图
+     * @param buckets   注册的窗口数，不超过直方图统计的窗口数
+     */
+    public void bindExpiryHistogram(ExpiryHistogram histogram, int buckets) {
+        int count = Math.min(buckets, histogram.getMaxBuckets());
+        for (int i = 0; i < count; i++) {
+            int offset = i;
+            Gauge.builder("cache.expiry.keys", histogram, h -> h.count(offset))
+                    .tag("offset", String.valueOf(offset))
+                    .description("未来各窗口将过期的Key数量").register(registry);
+        }
+        FunctionCounter.builder("cache.expiry.overflow", histogram, ExpiryHistogram::getOverflowCount)
+                .description("过期时间超出统计范围的写入次数").register(registry);
+    }
+
+    private Timer timer(String operation, String module, String result) {
+        return Timer.builder(OPERATIONS)
+                .tag("operation", operation)
+                .tag("module", module)
+                .tag("result", result)
+                .description("Redis操作耗时")
+                .register(registry);
+    }
+
+    private DistributionSummary size(String module, String direction) {
+        return DistributionSummary.builder(VALUE_SIZE)
+                .tag("module", module)
+                .tag("direction", direction)
+                .baseUnit("bytes")
+                .description("序列化后的缓存值大小")
+                .register(registry);
+    }
+}
@@ -0,0 +1,183 @@
+package com.common.cache.namespace;
+
+import com.common.cache.script.LuaScript;
+import com.common.cache.script.LuaScriptRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 命名空间版本号
+ * <p>
+ * 每个（租户, 模块）在Redis中保存一个版本号，版本号作为Key的一段（见 {@code CacheKeyGenerator#generateVersioned}）。
+ * 失效整个命名空间只需一次 INCR：旧版本的Key不再被访问，由过期时间自然清理，无需扫描删除。
+ * <ul>
+ *     <li>版本号在本地缓存 localTtl 毫秒；本节点递增后立即更新本地值，并广播到其他节点</li>
+ *     <li>版本号不存在时以当前毫秒时间戳初始化，版本Key被淘汰后重新初始化的值仍大于旧值，旧Key不会重新可见</li>
+ *     <li>Redis异常时继续使用本地已过期的版本号；本地也没有时使用0（不会与正常版本号重复）</li>
+ * </ul>
+ */
+@Slf4j
+public class NamespaceVersions implements MessageListener {
+
+    private static final char SEPARATOR = '\n';
+
+    private static final String GET_OR_INIT_SCRIPT =
+            "local v = redis.call('get', KEYS[1]); "
+                    + "if not v then redis.call('set', KEYS[1], ARGV[1], 'NX'); v = redis.call('get', KEYS[1]) end; "
+                    + "return tonumber(v)";
+
+    private static final String INCREMENT_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 0 then redis.call('set', KEYS[1], ARGV[1]) end; "
+                    + "return redis.call('incr', KEYS[1])";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
+    private final LuaScript getOrInitScript;
+    private final LuaScript incrementScript;
+    private final String keyPrefix;
+    private final String separator;
+    private final byte[] channel;
+    private final long localTtlMillis;
+    private final String nodeId = UUID.randomUUID().toString().replace("-", "");
+
+    /**
+     * 版本Key -> 本地缓存的版本号
+     */
+    private final ConcurrentHashMap<String, Local> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @param redisTemplate  Redis模板
+     * @param scriptRegistry 脚本注册表
+     * @param keyPrefix      版本Key前缀（含分隔符），如 app:__ns:
+     * @param separator      Key分隔符
+     * @param channel        版本变更广播频道
+     * @param localTtlMillis 本地缓存时间（毫秒）
+     */
+    public NamespaceVersions(RedisTemplate<String, Object> redisTemplate, LuaScriptRegistry scriptRegistry,
+                             String keyPrefix, String separator, String channel, long localTtlMillis) {
+        if (channel == null || channel.isEmpty()) {
+            throw new IllegalArgumentException("版本变更广播频道不能为空");
+        }
+        this.redisTemplate = redisTemplate;
+        this.scriptRegistry = scriptRegistry;
+        this.getOrInitScript = scriptRegistry.register("namespaceVersion", GET_OR_INIT_SCRIPT, ReturnType.INTEGER);
+        this.incrementScript = scriptRegistry.register("namespaceIncrement", INCREMENT_SCRIPT, ReturnType.INTEGER);
+        this.keyPrefix = keyPrefix;
+        this.separator = separator;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        this.localTtlMillis = Math.max(localTtlMillis, 0);
+    }
+
+    /**
+     * 获取命名空间当前版本号
+     *
+     * @param module   模块名
+     * @param tenantId 租户ID（可选）
+     */
+    public long current(String module, String tenantId) {
+        String key = versionKey(module, tenantId);
+        Local local = versions.get(key);
+        long now = System.currentTimeMillis();
+        if (local != null && local.expireAt > now) {
+            return local.version;
+        }
+        try {
+            Long version = scriptRegistry.execute(getOrInitScript, Collections.singletonList(key), now);
+            if (version != null) {
+                update(key, version);
+                return version;
+            }
+        } catch (Exception e) {
+            log.error("Redis 读取命名空间版本失败: key={}", key, e);
+        }
+        return local != null ? local.version : 0;
+    }
+
+    /**
+     * 递增版本号，使命名空间下的全部旧Key失效
+     *
+     * @return 新版本号；Redis异常返回-1（未失效）
+     */
+    public long increment(String module, String tenantId) {
+        String key = versionKey(module, tenantId);
+        Long version;
+        try {
+            version = scriptRegistry.execute(incrementScript, Collections.singletonList(key),
+                    System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Redis 递增命名空间版本失败: key={}", key, e);
+            return -1;
+        }
+        if (version == null) {
+            return -1;
+        }
+        update(key, version);
+        publish(key, version);
+        log.info("命名空间已失效: module={}, tenantId={}, version={}", module, tenantId, version);
+        return version;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int first = body.indexOf(SEPARATOR);
+            int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+            if (second < 0 || nodeId.equals(body.substring(0, first))) {
+                return;
+            }
+            update(body.substring(first + 1, second), Long.parseLong(body.substring(second + 1)));
+        } catch (Exception e) {
+            log.warn("处理命名空间版本消息失败", e);
+        }
+    }
+
+    /**
+     * 版本Key：{@code 前缀__ns:[租户:]模块}，不在模块与租户的匹配模式之内，按模式删除时不会被误删
+     */
+    private String versionKey(String module, String tenantId) {
+        if (module == null || module.isEmpty()) {
+            throw new IllegalArgumentException("模块名不能为空");
+        }
+        return tenantId == null || tenantId.isEmpty()
+                ? keyPrefix + module
+                : keyPrefix + tenantId + separator + module;
+    }
+
+    /**
+     * 只前进不后退，乱序到达的旧消息不会覆盖新版本号
+     */
+    private void update(String key, long version) {
+        long expireAt = System.currentTimeMillis() + localTtlMillis;
+        versions.merge(key, new Local(version, expireAt),
+                (old, fresh) -> old.version > fresh.version ? new Local(old.version, expireAt) : fresh);
+    }
+
+    private void publish(String key, long version) {
+        byte[] payload = (nodeId + SEPARATOR + key + SEPARATOR + version).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, payload));
+        } catch (Exception e) {
+            log.error("广播命名空间版本失败: key={}", key, e);
+        }
+    }
+
+    private static final class Local {
+        private final long version;
+        private final long expireAt;
+
+        Local(long version, long expireAt) {
+            this.version = version;
+            this.expireAt = expireAt;
+        }
+    }
+}
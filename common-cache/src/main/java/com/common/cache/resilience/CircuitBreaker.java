@@ -0,0 +1,184 @@
+package com.common.cache.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis熔断器
+ * <p>
+ * 按最近 windowSize 次调用统计失败率与慢调用率，任一超过阈值即打开熔断：
+ * <ul>
+ *     <li>CLOSED：正常放行并统计</li>
+ *     <li>OPEN：直接拒绝，调用方立即返回降级值；持续 openDuration 后进入半开</li>
+ *     <li>HALF_OPEN：放行 halfOpenCalls 次探测调用，全部成功且不慢则关闭，任一失败或慢调用则重新打开</li>
+ * </ul>
+ * 关闭状态下 {@link #tryAcquire()} 只读取一次volatile字段；{@link #onResult(long, boolean)} 无锁写入环形缓冲，
+ * 只在出现失败或慢调用时扫描窗口计算比率，加锁仅发生在状态变更与半开探测时。
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int FAILURE = 1;
+    private static final int SLOW = 2;
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    /**
+     * 最近调用结果环形缓冲，calls 为累计写入次数
+     */
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong calls = new AtomicLong();
+
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param name                  名称，用于日志
+     * @param failureRateThreshold  失败率阈值（百分比）
+     * @param slowCallRateThreshold 慢调用率阈值（百分比），大于100表示不按慢调用熔断
+     * @param slowCallMillis        慢调用耗时（毫秒）
+     * @param windowSize            统计窗口调用次数
+     * @param minimumCalls          窗口内最少调用次数，不足时不计算比率
+     * @param openMillis            熔断打开持续时间（毫秒）
+     * @param halfOpenCalls         半开状态探测调用次数
+     */
+    public CircuitBreaker(String name, int failureRateThreshold, int slowCallRateThreshold, long slowCallMillis,
+                          int windowSize, int minimumCalls, long openMillis, int halfOpenCalls) {
+        this.name = name;
+        this.failureRateThreshold = Math.max(failureRateThreshold, 1);
+        this.slowCallRateThreshold = Math.max(slowCallRateThreshold, 1);
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowCallMillis, 1));
+        this.outcomes = new AtomicIntegerArray(Math.max(windowSize, 1));
+        this.minimumCalls = Math.min(Math.max(minimumCalls, 1), outcomes.length());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(openMillis, 1));
+        this.halfOpenCalls = Math.max(halfOpenCalls, 1);
+    }
+
+    /**
+     * 是否放行本次调用；放行后必须调用 {@link #onResult(long, boolean)}
+     */
+    public boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits <= 0) {
+                    return false;
+                }
+                halfOpenPermits--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 记录调用结果
+     *
+     * @param nanos   调用耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void onResult(long nanos, boolean success) {
+        boolean slow = nanos >= slowCallNanos;
+        State current = state;
+        if (current == State.CLOSED) {
+            int outcome = (success ? 0 : FAILURE) | (slow ? SLOW : 0);
+            outcomes.set((int) (calls.getAndIncrement() % outcomes.length()), outcome);
+            // 成功且不慢的调用不会让比率上升，无需检查
+            if (outcome != 0) {
+                checkThresholds();
+            }
+            return;
+        }
+        if (current == State.OPEN) {
+            return;
+        }
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                if (!success || slow) {
+                    log.warn("Redis熔断探测失败，重新打开: name={}, slow={}", name, slow);
+                    open();
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    resetWindow();
+                    transitionTo(State.CLOSED);
+                }
+            }
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 扫描窗口计算失败率与慢调用率，超过阈值时加锁打开熔断
+     */
+    private void checkThresholds() {
+        long count = Math.min(calls.get(), outcomes.length());
+        if (count < minimumCalls) {
+            return;
+        }
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < outcomes.length(); i++) {
+            int outcome = outcomes.get(i);
+            failures += outcome & FAILURE;
+            slowCalls += (outcome & SLOW) >> 1;
+        }
+        if (failures * 100L >= failureRateThreshold * count || slowCalls * 100L >= slowCallRateThreshold * count) {
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    log.warn("Redis熔断打开: name={}, calls={}, failures={}, slowCalls={}",
+                            name, count, failures, slowCalls);
+                    open();
+                }
+            }
+        }
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        for (int i = 0; i < outcomes.length(); i++) {
+            outcomes.set(i, 0);
+        }
+        calls.set(0);
+    }
+
+    private void transitionTo(State target) {
+        if (state != target) {
+            log.info("Redis熔断状态变更: name={}, {} -> {}", name, state, target);
+            state = target;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.common.cache.script;
+
+import org.springframework.data.redis.connection.ReturnType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 已注册的Lua脚本：源码与SHA1在注册时计算一次，执行时只发送SHA1
+ */
+public final class LuaScript {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String name;
+    private final byte[] source;
+    private final byte[] sha1;
+    private final ReturnType returnType;
+
+    LuaScript(String name, String source, ReturnType returnType) {
+        this.name = name;
+        this.source = source.getBytes(StandardCharsets.UTF_8);
+        this.sha1 = sha1Hex(this.source).getBytes(StandardCharsets.UTF_8);
+        this.returnType = returnType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSha1() {
+        return new String(sha1, StandardCharsets.UTF_8);
+    }
+
+    public ReturnType getReturnType() {
+        return returnType;
+    }
+
+    byte[] source() {
+        return source;
+    }
+
+    byte[] sha1() {
+        return sha1;
+    }
+
+    boolean sameSource(String script) {
+        return new String(source, StandardCharsets.UTF_8).equals(script);
+    }
+
+    private static String sha1Hex(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(data);
+            char[] chars = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                chars[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                chars[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(chars);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1不可用", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.common.cache.script;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lua脚本注册表
+ * <p>
+ * 脚本按名称注册一次，执行时使用 EVALSHA 只发送40字节的SHA1；服务端没有缓存该脚本
+ * （首次执行、重启、主从切换或 SCRIPT FLUSH 之后）返回 NOSCRIPT 时改用 EVAL，EVAL 会顺带缓存脚本。
+ * <p>
+ * 参数统一以字节数组传递：byte[] 原样传递，其他对象按 {@code String.valueOf} 的UTF-8编码传递。
+ * 返回值类型由 {@link ReturnType} 决定：INTEGER 为 Long，VALUE 为 byte[]，STATUS 为 String，MULTI 为 List，BOOLEAN 为 Boolean。
+ * 集群模式下脚本访问的所有Key必须位于同一槽位（使用哈希标签）。
+ */
+@Slf4j
+public class LuaScriptRegistry {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ConcurrentHashMap<String, LuaScript> scripts = new ConcurrentHashMap<>();
+
+    public LuaScriptRegistry(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 注册脚本；同名同源码重复注册返回已有脚本
+     *
+     * @param name       脚本名称
+     * @param script     Lua源码
+     * @param returnType 返回值类型
+     * @throws IllegalArgumentException 同名脚本源码不同
+     */
+    public LuaScript register(String name, String script, ReturnType returnType) {
+        if (name == null || name.isEmpty() || script == null || script.isEmpty()) {
+            throw new IllegalArgumentException("脚本名称和源码不能为空");
+        }
+        LuaScript registered = scripts.computeIfAbsent(name, n -> new LuaScript(n, script, returnType));
+        if (!registered.sameSource(script) || registered.getReturnType() != returnType) {
+            throw new IllegalArgumentException("脚本名称已被占用: " + name);
+        }
+        return registered;
+    }
+
+    /**
+     * 获取已注册的脚本
+     *
+     * @return 脚本，未注册返回null
+     */
+    public LuaScript get(String name) {
+        return scripts.get(name);
+    }
+
+    /**
+     * 按名称执行已注册的脚本
+     *
+     * @throws IllegalArgumentException 脚本未注册
+     */
+    public <T> T execute(String name, List<String> keys, Object... args) {
+        LuaScript script = scripts.get(name);
+        if (script == null) {
+            throw new IllegalArgumentException("脚本未注册: " + name);
+        }
+        return execute(script, keys, args);
+    }
+
+    /**
+     * 执行脚本（异常直接抛出，由调用方决定降级方式）
+     *
+     * @param script 脚本
+     * @param keys   KEYS
+     * @param args   ARGV
+     */
+    public <T> T execute(LuaScript script, List<String> keys, Object... args) {
+        int numKeys = keys != null ? keys.size() : 0;
+        byte[][] keysAndArgs = new byte[numKeys + (args != null ? args.length : 0)][];
+        for (int i = 0; i < numKeys; i++) {
+            keysAndArgs[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = numKeys; i < keysAndArgs.length; i++) {
+            keysAndArgs[i] = toBytes(args[i - numKeys]);
+        }
+        return redisTemplate.execute((RedisCallback<T>) connection ->
+                execute(connection, script, numKeys, keysAndArgs));
+    }
+
+    /**
+     * 在已有连接上执行脚本；不能用于管道和事务，其中的 NOSCRIPT 错误要到提交时才返回
+     */
+    public <T> T execute(RedisConnection connection, LuaScript script, int numKeys, byte[]... keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.sha1(), script.getReturnType(), numKeys,
+                    keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            log.debug("Redis 脚本未缓存，改用EVAL: name={}", script.getName());
+            return connection.scriptingCommands().eval(script.source(), script.getReturnType(), numKeys,
+                    keysAndArgs);
+        }
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.contains("NOSCRIPT")) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] toBytes(Object arg) {
+        if (arg instanceof byte[]) {
+            return (byte[]) arg;
+        }
+        return String.valueOf(arg).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package com.common.cache.serializer;
+
+import com.common.cache.metrics.CacheMetrics;
+import com.common.cache.metrics.CacheMetricsContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 可切换格式的缓存值序列化器
+ * <p>
+ * 非JSON格式的数据带3字节头：魔数 + 编码 + 压缩方式。读取时按头识别格式，无头数据按历史JSON解析，
+ * 因此切换序列化方式的灰度期间新旧数据可以混读，回滚到JSON也能读取已写入的新格式数据。
+ */
+@Slf4j
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 魔数：JSON文本首字节一定是ASCII，不会与之冲突
+     */
+    static final byte MAGIC = (byte) 0xCA;
+
+    static final byte CODEC_JSON = 1;
+    static final byte CODEC_SMILE = 2;
+
+    static final byte COMPRESS_NONE = 0;
+    static final byte COMPRESS_DEFLATE = 1;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private final SerializerType type;
+    private final int compressThreshold;
+    private final RedisSerializer<Object> json;
+    private volatile RedisSerializer<Object> smile;
+    private CacheMetrics metrics = CacheMetrics.NOOP;
+    private int warnSize = Integer.MAX_VALUE;
+
+    /**
+     * @param type              序列化方式
+     * @param compressThreshold 压缩阈值（字节），序列化结果超过该大小才压缩
+     */
+    public CacheValueSerializer(SerializerType type, int compressThreshold) {
+        this.type = type != null ? type : SerializerType.JSON;
+        this.compressThreshold = compressThreshold > 0 ? compressThreshold : Integer.MAX_VALUE;
+        this.json = new GenericJackson2JsonRedisSerializer();
+        if (this.type == SerializerType.BINARY) {
+            this.smile = createSmile();
+        }
+    }
+
+    /**
+     * 设置指标记录器，记录每次序列化/反序列化的字节数
+     */
+    public void setMetrics(CacheMetrics metrics) {
+        this.metrics = metrics != null ? metrics : CacheMetrics.NOOP;
+    }
+
+    /**
+     * 设置大Value告警阈值（字节），序列化结果超过该大小时打印WARN日志，小于等于0关闭
+     */
+    public void setWarnSize(int warnSize) {
+        this.warnSize = warnSize > 0 ? warnSize : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = doSerialize(value);
+        metrics.recordValueSize(CacheMetricsContext.currentKey(), true, bytes.length);
+        if (bytes.length > warnSize) {
+            log.warn("Redis 大Value写入: key={}, size={}KB, type={}", CacheMetricsContext.currentKey(),
+                    bytes.length / 1024, value.getClass().getName());
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        metrics.recordValueSize(CacheMetricsContext.currentKey(), false, bytes.length);
+        return doDeserialize(bytes);
+    }
+
+    public SerializerType getType() {
+        return type;
+    }
+
+    private byte[] doSerialize(Object value) {
+        switch (type) {
+            case BINARY:
+                return encode(CODEC_SMILE, smile.serialize(value), true);
+            case JSON_COMPRESSED:
+                return encode(CODEC_JSON, json.serialize(value), false);
+            case JSON:
+            default:
+                return json.serialize(value);
+        }
+    }
+
+    private Object doDeserialize(byte[] bytes) {
+        if (bytes[0] != MAGIC || bytes.length < HEADER_LENGTH) {
+            return json.deserialize(bytes);
+        }
+        byte codec = bytes[1];
+        byte compress = bytes[2];
+        byte[] payload;
+        if (compress == COMPRESS_DEFLATE) {
+            payload = inflate(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        } else if (compress == COMPRESS_NONE) {
+            payload = new byte[bytes.length - HEADER_LENGTH];
+            System.arraycopy(bytes, HEADER_LENGTH, payload, 0, payload.length);
+        } else {
+            throw new SerializationException("未知的压缩方式: " + compress);
+        }
+        if (codec == CODEC_JSON) {
+            return json.deserialize(payload);
+        }
+        if (codec == CODEC_SMILE) {
+            return smile().deserialize(payload);
+        }
+        throw new SerializationException("未知的编码方式: " + codec);
+    }
+
+    /**
+     * 组装带头数据；JSON未达到压缩阈值时保持原样，不加头
+     */
+    private byte[] encode(byte codec, byte[] payload, boolean alwaysHeader) {
+        boolean compress = payload.length > compressThreshold;
+        if (!compress && !alwaysHeader) {
+            return payload;
+        }
+        byte[] body = compress ? deflate(payload) : payload;
+        byte[] result = new byte[HEADER_LENGTH + body.length];
+        result[0] = MAGIC;
+        result[1] = codec;
+        result[2] = compress ? COMPRESS_DEFLATE : COMPRESS_NONE;
+        System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+        return result;
+    }
+
+    private RedisSerializer<Object> smile() {
+        RedisSerializer<Object> s = smile;
+        if (s == null) {
+            synchronized (this) {
+                s = smile;
+                if (s == null) {
+                    s = createSmile();
+                    smile = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    private static RedisSerializer<Object> createSmile() {
+        try {
+            return SmileCodec.create();
+        } catch (NoClassDefFoundError e) {
+            throw new IllegalStateException("二进制序列化需要引入 jackson-dataformat-smile 依赖", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(data.length / 2, 64));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("缓存数据不完整，无法解压");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("缓存数据解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.common.cache.serializer;
+
+/**
+ * 缓存值序列化方式
+ */
+public enum SerializerType {
+
+    /**
+     * JSON（与历史数据格式一致）
+     */
+    JSON,
+
+    /**
+     * 紧凑二进制（Jackson Smile），超过阈值时压缩
+     */
+    BINARY,
+
+    /**
+     * JSON，超过阈值时压缩
+     */
+    JSON_COMPRESSED
+}
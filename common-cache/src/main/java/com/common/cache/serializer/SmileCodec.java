@@ -0,0 +1,26 @@
+package com.common.cache.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Smile二进制编解码器
+ * <p>
+ * 单独成类，保证未引入 jackson-dataformat-smile 时不加载 Smile 相关类。
+ * Smile 对重复出现的字段名和类型名做回引用，列表类数据比JSON明显更小。
+ */
+final class SmileCodec {
+
+    private SmileCodec() {}
+
+    static RedisSerializer<Object> create() {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        mapper.activateDefaultTypingAsProperty(LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.EVERYTHING, "@class");
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
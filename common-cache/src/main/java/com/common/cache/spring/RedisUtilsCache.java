@@ -0,0 +1,114 @@
+package com.common.cache.spring;
+
+import com.common.cache.CacheKeyGenerator;
+import com.common.cache.RedisUtils;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 {@link RedisUtils} 的Spring Cache实现
+ * <p>
+ * Key按 {@code 前缀:缓存名:key} 生成，与 {@code keyGenerator.generate(cacheName, key)} 一致；
+ * 读写经过RedisUtils，本地一级缓存、TTL打散、熔断、指标、热点Key与分块存储同样生效。
+ * {@code @Cacheable(sync = true)} 走 {@link RedisUtils#getOrLoad}，同一Key的并发未命中只回源一次。
+ */
+public class RedisUtilsCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final RedisUtils redisUtils;
+    private final CacheKeyGenerator keyGenerator;
+    private final long ttlSeconds;
+
+    /**
+     * @param name            缓存名，作为Key中的模块
+     * @param redisUtils      Redis工具
+     * @param keyGenerator    Key生成器
+     * @param ttlSeconds      过期时间（秒），小于等于0使用默认过期时间
+     * @param allowNullValues 是否缓存null（写入空值占位，过期时间为 nullValueTtl）
+     */
+    public RedisUtilsCache(String name, RedisUtils redisUtils, CacheKeyGenerator keyGenerator, long ttlSeconds,
+                           boolean allowNullValues) {
+        super(allowNullValues);
+        this.name = name;
+        this.redisUtils = redisUtils;
+        this.keyGenerator = keyGenerator;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisUtils;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = redisUtils.getRawValue(cacheKey(key));
+        if (value instanceof RedisUtils.NullValue) {
+            return isAllowNullValues() ? NullValue.INSTANCE : null;
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        try {
+            return redisUtils.getOrLoad(cacheKey(key), ttlSeconds, TimeUnit.SECONDS, isAllowNullValues(), () -> {
+                try {
+                    return valueLoader.call();
+                } catch (Exception e) {
+                    throw new LoaderException(e);
+                }
+            });
+        } catch (LoaderException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // 不允许null时由toStoreValue抛出异常
+        toStoreValue(value);
+        redisUtils.set(cacheKey(key), value, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisUtils.delete(cacheKey(key));
+    }
+
+    @Override
+    public void clear() {
+        redisUtils.deleteByPattern(keyGenerator.pattern(name));
+    }
+
+    /**
+     * 缓存Key
+     */
+    public String cacheKey(Object key) {
+        return keyGenerator.generate(name, String.valueOf(key));
+    }
+
+    /**
+     * 在加载器中传递受检异常
+     */
+    private static class LoaderException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LoaderException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.common.cache.spring;
+
+import com.common.cache.CacheKeyGenerator;
+import com.common.cache.RedisUtils;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 {@link RedisUtils} 的CacheManager
+ * <p>
+ * 预先声明的缓存使用各自的过期时间，其余缓存名在首次使用时按默认过期时间创建；
+ * 关闭动态创建后，未声明的缓存名返回null，由Spring抛出找不到缓存的异常。
+ */
+public class RedisUtilsCacheManager extends AbstractCacheManager {
+
+    private final RedisUtils redisUtils;
+    private final CacheKeyGenerator keyGenerator;
+    private final long defaultTtlSeconds;
+    private final boolean allowNullValues;
+    private final boolean dynamic;
+
+    /**
+     * 缓存名 -> 过期时间（秒）
+     */
+    private final Map<String, Long> initialTtls;
+
+    /**
+     * @param redisUtils        Redis工具
+     * @param keyGenerator      Key生成器
+     * @param defaultTtlSeconds 未单独配置的缓存的过期时间（秒），小于等于0使用 defaultTtl
+     * @param initialTtls       预先声明的缓存名与过期时间（秒）
+     * @param allowNullValues   是否缓存null
+     * @param dynamic           是否按需创建未声明的缓存
+     */
+    public RedisUtilsCacheManager(RedisUtils redisUtils, CacheKeyGenerator keyGenerator, long defaultTtlSeconds,
+                                  Map<String, Long> initialTtls, boolean allowNullValues, boolean dynamic) {
+        this.redisUtils = redisUtils;
+        this.keyGenerator = keyGenerator;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.initialTtls = initialTtls != null ? new LinkedHashMap<>(initialTtls) : Collections.emptyMap();
+        this.allowNullValues = allowNullValues;
+        this.dynamic = dynamic;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>(initialTtls.size());
+        for (Map.Entry<String, Long> entry : initialTtls.entrySet()) {
+            Long ttl = entry.getValue();
+            caches.add(createCache(entry.getKey(), ttl != null && ttl > 0 ? ttl : defaultTtlSeconds));
+        }
+        return caches;
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return dynamic ? createCache(name, defaultTtlSeconds) : null;
+    }
+
+    private RedisUtilsCache createCache(String name, long ttlSeconds) {
+        return new RedisUtilsCache(name, redisUtils, keyGenerator, ttlSeconds, allowNullValues);
+    }
+}
@@ -0,0 +1,103 @@
+package com.common.cache.ttl;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 过期时间分布直方图
+ * <p>
+ * 按固定时间窗口统计本节点写入的Key将在何时过期，用于观察TTL打散效果。
+ * 只统计未来 {@code maxBuckets} 个窗口内的过期，更远的计入溢出计数。
+ */
+public class ExpiryHistogram {
+
+    private final long bucketMillis;
+    private final int maxBuckets;
+    private final ConcurrentMap<Long, LongAdder> buckets = new ConcurrentHashMap<>();
+    private final LongAdder overflow = new LongAdder();
+    private volatile long lastPruneBucket;
+
+    /**
+     * @param bucketMillis 统计窗口大小（毫秒）
+     * @param maxBuckets   最多统计的未来窗口数
+     */
+    public ExpiryHistogram(long bucketMillis, int maxBuckets) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("统计窗口必须大于0");
+        }
+        if (maxBuckets <= 0) {
+            throw new IllegalArgumentException("统计窗口数必须大于0");
+        }
+        this.bucketMillis = bucketMillis;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * 记录一次写入
+     *
+     * @param ttlMillis 实际过期时间（毫秒）
+     */
+    public void record(long ttlMillis) {
+        long now = System.currentTimeMillis();
+        long current = now / bucketMillis;
+        long bucket = (now + ttlMillis) / bucketMillis;
+        if (current != lastPruneBucket) {
+            lastPruneBucket = current;
+            prune(current);
+        }
+        if (bucket - current >= maxBuckets) {
+            overflow.increment();
+            return;
+        }
+        buckets.computeIfAbsent(bucket, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 获取未来各窗口的过期数量快照
+     *
+     * @return 窗口起始时间戳（毫秒）到过期Key数量的有序映射
+     */
+    public SortedMap<Long, Long> snapshot() {
+        long current = System.currentTimeMillis() / bucketMillis;
+        SortedMap<Long, Long> result = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : buckets.entrySet()) {
+            if (entry.getKey() >= current) {
+                result.put(entry.getKey() * bucketMillis, entry.getValue().sum());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取从当前窗口起第 {@code offset} 个窗口内将过期的数量
+     *
+     * @param offset 窗口偏移，0表示当前窗口
+     */
+    public long count(int offset) {
+        LongAdder adder = buckets.get(System.currentTimeMillis() / bucketMillis + offset);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * 超出统计范围的写入次数
+     */
+    public long getOverflowCount() {
+        return overflow.sum();
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    private void prune(long current) {
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+}
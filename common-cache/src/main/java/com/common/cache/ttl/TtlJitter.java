@@ -0,0 +1,102 @@
+package com.common.cache.ttl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TTL随机打散
+ * <p>
+ * 在原始过期时间上追加一个随机增量，避免批量预热的Key在同一时刻集中过期。
+ * 增量只会延长过期时间，不会缩短。支持按Key前缀覆盖默认配置。
+ */
+public class TtlJitter {
+
+    private final Rule defaultRule;
+    private final List<Rule> rules;
+    private final ExpiryHistogram histogram;
+
+    /**
+     * @param ratio       按比例打散，如0.1表示最多追加原TTL的10%
+     * @param rangeMillis 按绝对范围打散（毫秒），大于0时优先于比例
+     * @param rules       按Key前缀覆盖的规则
+     * @param histogram   过期分布统计（可选）
+     */
+    public TtlJitter(double ratio, long rangeMillis, Collection<Rule> rules, ExpiryHistogram histogram) {
+        this.defaultRule = new Rule("", ratio, rangeMillis);
+        List<Rule> sorted = new ArrayList<>();
+        if (rules != null) {
+            for (Rule rule : rules) {
+                if (rule != null && rule.keyPrefix != null && !rule.keyPrefix.isEmpty()) {
+                    sorted.add(rule);
+                }
+            }
+        }
+        // 最长前缀优先匹配
+        sorted.sort((a, b) -> b.keyPrefix.length() - a.keyPrefix.length());
+        this.rules = sorted;
+        this.histogram = histogram;
+    }
+
+    /**
+     * 计算打散后的过期时间
+     *
+     * @param key       缓存Key
+     * @param ttlMillis 原始过期时间（毫秒）
+     * @return 打散后的过期时间（毫秒）
+     */
+    public long apply(String key, long ttlMillis) {
+        if (ttlMillis <= 0) {
+            return ttlMillis;
+        }
+        long jittered = ttlMillis + match(key).nextJitter(ttlMillis);
+        if (histogram != null) {
+            histogram.record(jittered);
+        }
+        return jittered;
+    }
+
+    public ExpiryHistogram getHistogram() {
+        return histogram;
+    }
+
+    private Rule match(String key) {
+        if (key != null) {
+            for (Rule rule : rules) {
+                if (key.startsWith(rule.keyPrefix)) {
+                    return rule;
+                }
+            }
+        }
+        return defaultRule;
+    }
+
+    /**
+     * 打散规则（按Key前缀配置）
+     */
+    public static class Rule {
+
+        private final String keyPrefix;
+        private final double ratio;
+        private final long rangeMillis;
+
+        public Rule(String keyPrefix, double ratio, long rangeMillis) {
+            this.keyPrefix = keyPrefix;
+            this.ratio = Math.max(ratio, 0);
+            this.rangeMillis = Math.max(rangeMillis, 0);
+        }
+
+        long nextJitter(long ttlMillis) {
+            long bound = rangeMillis > 0 ? rangeMillis : (long) (ttlMillis * ratio);
+            if (bound <= 0) {
+                return 0;
+            }
+            return ThreadLocalRandom.current().nextLong(bound + 1);
+        }
+
+        public String getKeyPrefix() {
+            return keyPrefix;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.common.cache.warmup;
+
+import com.common.cache.CacheKeyGenerator;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 缓存预热扩展点
+ * <p>
+ * 声明为Bean后，应用就绪时由 {@link CacheWarmupRunner} 分批执行：先批量读取已存在的Key，
+ * 只对未命中的ID调用 {@link #load(Collection)}，再以管道批量写入。
+ *
+ * @param <K> 业务ID类型
+ * @param <V> 缓存值类型
+ */
+public interface CacheWarmer<K, V> {
+
+    /**
+     * 预热任务名称，用于日志，默认为模块名
+     */
+    default String getName() {
+        return getModule();
+    }
+
+    /**
+     * 模块名，Key默认为 {@code keyGenerator.generate(module, String.valueOf(id))}，
+     * 与Spring Cache的 {@code 前缀:缓存名:key} 一致
+     */
+    String getModule();
+
+    /**
+     * 需要预热的业务ID
+     */
+    Collection<K> ids();
+
+    /**
+     * 批量回源加载
+     *
+     * @param ids 未命中缓存的ID
+     * @return ID -> 值，不包含的ID视为不存在
+     */
+    Map<K, V> load(Collection<K> ids);
+
+    /**
+     * 过期时间（秒），小于等于0使用默认过期时间
+     */
+    default long getTtl() {
+        return 0;
+    }
+
+    /**
+     * 回源不存在的ID是否写入空值占位
+     */
+    default boolean isCacheNull() {
+        return false;
+    }
+
+    /**
+     * 生成缓存Key，Key格式不同时覆盖
+     */
+    default String key(CacheKeyGenerator keyGenerator, K id) {
+        return keyGenerator.generate(getModule(), String.valueOf(id));
+    }
+}
@@ -0,0 +1,241 @@
+package com.common.cache.warmup;
+
+import com.common.cache.CacheKeyGenerator;
+import com.common.cache.RedisUtils;
+import com.common.cache.local.NearCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存预热执行器
+ * <p>
+ * 收到 {@link ApplicationReadyEvent} 后执行所有 {@link CacheWarmer}：ID按 batchSize 分批，
+ * 最多 parallelism 个批次并行，每批一次MGET、一次批量回源、一次管道写入，并回填本节点的本地一级缓存。
+ * <ul>
+ *     <li>同步模式在事件线程中执行，Spring Boot在监听器返回后才把就绪状态置为 ACCEPTING_TRAFFIC</li>
+ *     <li>单个批次失败只记录日志，不影响其他批次与应用启动</li>
+ *     <li>超过 timeout 仍未完成时中断剩余批次</li>
+ * </ul>
+ */
+@Slf4j
+public class CacheWarmupRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final List<CacheWarmer<?, ?>> warmers;
+    private final RedisUtils redisUtils;
+    private final CacheKeyGenerator keyGenerator;
+    private final int batchSize;
+    private final int parallelism;
+    private final long timeoutMillis;
+    private final boolean blocking;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean finished;
+
+    /**
+     * @param warmers       预热任务
+     * @param redisUtils    Redis工具
+     * @param keyGenerator  Key生成器
+     * @param batchSize     每批ID数
+     * @param parallelism   并行批次数
+     * @param timeoutMillis 整体超时（毫秒）
+     * @param blocking      是否同步执行（阻塞就绪）
+     */
+    public CacheWarmupRunner(List<CacheWarmer<?, ?>> warmers, RedisUtils redisUtils, CacheKeyGenerator keyGenerator,
+                             int batchSize, int parallelism, long timeoutMillis, boolean blocking) {
+        this.warmers = new ArrayList<>(warmers);
+        this.redisUtils = redisUtils;
+        this.keyGenerator = keyGenerator;
+        this.batchSize = Math.max(batchSize, 1);
+        this.parallelism = Math.max(parallelism, 1);
+        this.timeoutMillis = Math.max(timeoutMillis, 1);
+        this.blocking = blocking;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        // 父子容器会各收到一次事件
+        if (warmers.isEmpty() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        if (blocking) {
+            warmUp();
+        } else {
+            Thread thread = new Thread(this::warmUp, "cache-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * 预热是否已结束（含超时）
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 执行全部预热任务，直到完成或超时
+     */
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "cache-warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (CacheWarmer<?, ?> warmer : warmers) {
+                submit(executor, warmer);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("缓存预热超时，中断剩余批次: timeout={}ms", timeoutMillis);
+                executor.shutdownNow();
+            } else {
+                log.info("缓存预热完成: warmers={}, cost={}ms", warmers.size(), System.currentTimeMillis() - start);
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            finished = true;
+        }
+    }
+
+    private <K, V> void submit(ExecutorService executor, CacheWarmer<K, V> warmer) {
+        Collection<K> ids;
+        try {
+            ids = warmer.ids();
+        } catch (Exception e) {
+            log.error("缓存预热获取ID失败: name={}", warmer.getName(), e);
+            return;
+        }
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        Progress progress = new Progress(warmer.getName(), ids.size());
+        List<K> batch = new ArrayList<>(Math.min(batchSize, ids.size()));
+        for (K id : ids) {
+            batch.add(id);
+            if (batch.size() >= batchSize) {
+                List<K> current = batch;
+                executor.execute(() -> warmBatch(warmer, current, progress));
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            List<K> current = batch;
+            executor.execute(() -> warmBatch(warmer, current, progress));
+        }
+    }
+
+    private <K, V> void warmBatch(CacheWarmer<K, V> warmer, List<K> ids, Progress progress) {
+        int hits = 0;
+        int loaded = 0;
+        boolean failed = false;
+        try {
+            Map<K, String> idToKey = new LinkedHashMap<>(ids.size() * 4 / 3 + 1);
+            for (K id : ids) {
+                if (id != null) {
+                    idToKey.put(id, warmer.key(keyGenerator, id));
+                }
+            }
+            // 已存在的Key在读取时回填本地缓存，无需回源
+            Map<String, Object> existing = redisUtils.multiGet(idToKey.values());
+            List<K> missIds = new ArrayList<>();
+            for (Map.Entry<K, String> entry : idToKey.entrySet()) {
+                if (!existing.containsKey(entry.getValue())) {
+                    missIds.add(entry.getKey());
+                }
+            }
+            hits = idToKey.size() - missIds.size();
+            if (!missIds.isEmpty()) {
+                loaded = loadMisses(warmer, missIds, idToKey);
+            }
+        } catch (Exception e) {
+            failed = true;
+            log.error("缓存预热批次失败: name={}, size={}", warmer.getName(), ids.size(), e);
+        }
+        progress.onBatch(ids.size(), hits, loaded, failed);
+    }
+
+    private <K, V> int loadMisses(CacheWarmer<K, V> warmer, List<K> missIds, Map<K, String> idToKey) {
+        Map<K, V> values = warmer.load(missIds);
+        Map<String, Object> toCache = new LinkedHashMap<>(missIds.size() * 4 / 3 + 1);
+        for (K id : missIds) {
+            V value = values != null ? values.get(id) : null;
+            if (value != null || warmer.isCacheNull()) {
+                toCache.put(idToKey.get(id), value);
+            }
+        }
+        if (toCache.isEmpty()) {
+            return 0;
+        }
+        redisUtils.multiSet(toCache, warmer.getTtl(), TimeUnit.SECONDS);
+        NearCache nearCache = redisUtils.getNearCache();
+        if (nearCache != null) {
+            // 不直接回填刚写入的值：multiSet本身会推进失效戳，写入后再取戳又察觉不到期间其他节点的失效，
+            // 可能把旧值放入本地缓存。改为重新读取，由multiGet在读取前取戳并回填Redis中的当前值
+            List<String> cacheable = new ArrayList<>(toCache.size());
+            for (String key : toCache.keySet()) {
+                if (nearCache.isCacheable(key)) {
+                    cacheable.add(key);
+                }
+            }
+            if (!cacheable.isEmpty()) {
+                redisUtils.multiGet(cacheable);
+            }
+        }
+        return toCache.size();
+    }
+
+    /**
+     * 单个预热任务的进度，每完成10%输出一次日志
+     */
+    private static final class Progress {
+        private final String name;
+        private final int total;
+        private final long start = System.currentTimeMillis();
+        private final AtomicLong done = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong loaded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        Progress(String name, int total) {
+            this.name = name;
+            this.total = total;
+        }
+
+        void onBatch(int size, int hitCount, int loadedCount, boolean batchFailed) {
+            hits.addAndGet(hitCount);
+            loaded.addAndGet(loadedCount);
+            if (batchFailed) {
+                failed.addAndGet(size);
+            }
+            long current = done.addAndGet(size);
+            long previous = current - size;
+            if (current >= total) {
+                log.info("缓存预热任务完成: name={}, total={}, hits={}, loaded={}, failed={}, cost={}ms",
+                        name, total, hits.get(), loaded.get(), failed.get(), System.currentTimeMillis() - start);
+            } else if (current * 10 / total > previous * 10 / total) {
+                log.info("缓存预热进度: name={}, {}/{} ({}%)", name, current, total, current * 100 / total);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ public enum ResultCode implements IResultCode {
     FORBIDDEN(403, "禁止访问"),
     NOT_FOUND(404, "资源不存在"),
     METHOD_NOT_ALLOWED(405, "请求方法不支持"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后再试"),
     INTERNAL_ERROR(500, "系统内部错误");
 
     private final int code;
@@ -1,6 +1,8 @@
 package com.common.excel;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.metadata.style.WriteCellStyle;
 import com.alibaba.excel.write.metadata.style.WriteFont;
 import com.alibaba.excel.write.style.HorizontalCellStyleStrategy;
@@ -12,6 +14,8 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Excel工具类
@@ -21,6 +25,18 @@ public final class ExcelUtils {
 
     private static final int DEFAULT_MAX_IMPORT_ROWS = 10000;
 
+    /**
+     * 流式导出每次写入的行数
+     */
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    /**
+     * 单个Sheet最多数据行数（xlsx上限1048576行，扣除表头）
+     */
+    public static final int MAX_ROWS_PER_SHEET = 1048575;
+
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
     private ExcelUtils() {}
 
     /**
@@ -31,23 +47,25 @@ public final class ExcelUtils {
     }
 
     /**
-     * 导出Excel（基于注解，指定sheet名）
+     * 导出Excel（基于注解，指定sheet名，超过单个Sheet行数上限时自动分Sheet）
      */
     public static <T> void export(List<T> data, Class<T> clazz, OutputStream os, String sheetName) {
-        validateOutputStream(os);
-        validateSheetName(sheetName);
-        if (data == null) {
-            data = Collections.emptyList();
-        }
-        try {
-            EasyExcel.write(os, clazz)
-                    .registerWriteHandler(defaultStyle())
-                    .sheet(sheetName)
-                    .doWrite(data);
-        } catch (Exception e) {
-            log.error("Excel导出失败", e);
-            throw new BizException(500, "Excel导出失败");
-        }
+        exportRows(data != null ? data.iterator() : null, clazz, os, sheetName, MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * 分页导出（基于注解）：逐页拉取并写入，内存中只保留一页数据，每个Sheet写满 rowsPerSheet 行后换到下一个Sheet
+     *
+     * @param fetcher      分页查询
+     * @param pageSize     每页条数
+     * @param clazz        导出模型
+     * @param os           输出流
+     * @param sheetName    第一个Sheet的名称
+     * @param rowsPerSheet 每个Sheet的数据行数（不含表头），最大 {@value #MAX_ROWS_PER_SHEET}
+     */
+    public static <T> void exportPaged(PageFetcher<T> fetcher, int pageSize, Class<T> clazz,
+                                       OutputStream os, String sheetName, int rowsPerSheet) {
+        exportRows(pageIterator(fetcher, pageSize), clazz, os, sheetName, rowsPerSheet);
     }
 
     /**
@@ -60,46 +78,7 @@ public final class ExcelUtils {
      */
     public static void exportDynamic(List<Map<String, Object>> data, List<ExportColumn> columns,
                                      OutputStream os, String sheetName) {
-        validateOutputStream(os);
-        validateSheetName(sheetName);
-        validateColumns(columns);
-        if (data == null) {
-            data = Collections.emptyList();
-        }
-
-        try {
-            // 构建表头
-            List<List<String>> head = new ArrayList<>();
-            List<String> fieldKeys = new ArrayList<>();
-            for (ExportColumn col : columns) {
-                head.add(Collections.singletonList(col.getTitle()));
-                fieldKeys.add(col.getField());
-            }
-
-            // 构建数据行（带公式注入防护）
-            List<List<Object>> rows = new ArrayList<>();
-            for (Map<String, Object> row : data) {
-                if (row == null) {
-                    continue;
-                }
-                List<Object> rowData = new ArrayList<>();
-                for (String field : fieldKeys) {
-                    rowData.add(sanitizeCellValue(row.get(field)));
-                }
-                rows.add(rowData);
-            }
-
-            EasyExcel.write(os)
-                    .registerWriteHandler(defaultStyle())
-                    .head(head)
-                    .sheet(sheetName)
-                    .doWrite(rows);
-        } catch (BizException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Excel动态导出失败", e);
-            throw new BizException(500, "Excel导出失败");
-        }
+        exportStream(data != null ? data.iterator() : null, columns, Map::get, os, sheetName);
     }
 
     /**
@@ -114,41 +93,131 @@ public final class ExcelUtils {
     public static <T> void exportDynamic(List<T> data, List<ExportColumn> columns,
                                          FieldExtractor<T> extractor,
                                          OutputStream os, String sheetName) {
+        exportStream(data != null ? data.iterator() : null, columns, extractor, os, sheetName);
+    }
+
+    /**
+     * 流式动态导出：逐条读取迭代器，每 {@value #WRITE_BATCH_SIZE} 行写入一次，内存中只保留一批数据
+     *
+     * @param data        数据迭代器（如数据库游标）
+     * @param columns     导出列定义
+     * @param extractor   字段提取器
+     * @param os          输出流
+     * @param sheetName   Sheet名称
+     */
+    public static <T> void exportStream(Iterator<T> data, List<ExportColumn> columns,
+                                        FieldExtractor<T> extractor,
+                                        OutputStream os, String sheetName) {
+        exportDynamicRows(data, columns, extractor, os, sheetName, MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * 流式动态导出（Stream 由调用方关闭）
+     */
+    public static <T> void exportStream(Stream<T> data, List<ExportColumn> columns,
+                                        FieldExtractor<T> extractor,
+                                        OutputStream os, String sheetName) {
+        exportStream(data != null ? data.iterator() : null, columns, extractor, os, sheetName);
+    }
+
+    /**
+     * 分页动态导出：从第1页开始逐页拉取，返回空页或不足一页时结束，内存中只保留一页数据
+     *
+     * @param fetcher     分页查询
+     * @param pageSize    每页条数
+     * @param columns     导出列定义
+     * @param extractor   字段提取器
+     * @param os          输出流
+     * @param sheetName   Sheet名称
+     */
+    public static <T> void exportPaged(PageFetcher<T> fetcher, int pageSize, List<ExportColumn> columns,
+                                       FieldExtractor<T> extractor,
+                                       OutputStream os, String sheetName) {
+        exportDynamicRows(pageIterator(fetcher, pageSize), columns, extractor, os, sheetName,
+                MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * 分页动态导出（前端请求）：列与Sheet名称取自导出请求，超过单个Sheet行数上限时自动分Sheet
+     *
+     * @param fetcher     分页查询
+     * @param pageSize    每页条数
+     * @param request     导出请求
+     * @param extractor   字段提取器
+     * @param os          输出流
+     */
+    public static <T> void exportPaged(PageFetcher<T> fetcher, int pageSize, ExportRequest request,
+                                       FieldExtractor<T> extractor, OutputStream os) {
+        exportPaged(fetcher, pageSize, request, extractor, os, MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * 分页动态导出（前端请求，指定每个Sheet的行数）
+     * <p>
+     * rowsPerSheet 由服务端决定，不取自请求：每个Sheet都有独立的临时文件与行缓冲，过小的值会生成大量Sheet耗尽内存和文件句柄
+     *
+     * @param fetcher      分页查询
+     * @param pageSize     每页条数
+     * @param request      导出请求
+     * @param extractor    字段提取器
+     * @param os           输出流
+     * @param rowsPerSheet 每个Sheet的数据行数（不含表头），最大 {@value #MAX_ROWS_PER_SHEET}
+     */
+    public static <T> void exportPaged(PageFetcher<T> fetcher, int pageSize, ExportRequest request,
+                                       FieldExtractor<T> extractor, OutputStream os, int rowsPerSheet) {
+        if (request == null) {
+            throw new BizException(400, "导出请求不能为空");
+        }
+        exportDynamicRows(pageIterator(fetcher, pageSize), request.getColumns(), extractor, os,
+                request.getSheetName(), rowsPerSheet);
+    }
+
+    private static <T> void exportRows(Iterator<T> data, Class<T> clazz, OutputStream os,
+                                       String sheetName, int rowsPerSheet) {
+        validateOutputStream(os);
+        validateSheetName(sheetName);
+        validateRowsPerSheet(rowsPerSheet);
+        try (ExcelWriter writer = EasyExcel.write(os, clazz)
+                .registerWriteHandler(defaultStyle())
+                .build()) {
+            writeSheets(writer, data, item -> item, sheetName, rowsPerSheet);
+        } catch (BizException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Excel导出失败", e);
+            throw new BizException(500, "Excel导出失败");
+        }
+    }
+
+    private static <T> void exportDynamicRows(Iterator<T> data, List<ExportColumn> columns,
+                                              FieldExtractor<T> extractor, OutputStream os,
+                                              String sheetName, int rowsPerSheet) {
         validateOutputStream(os);
         validateSheetName(sheetName);
         validateColumns(columns);
+        validateRowsPerSheet(rowsPerSheet);
         if (extractor == null) {
             throw new BizException(400, "字段提取器不能为空");
         }
-        if (data == null) {
-            data = Collections.emptyList();
-        }
 
-        try {
-            // 构建表头
-            List<List<String>> head = new ArrayList<>();
-            for (ExportColumn col : columns) {
-                head.add(Collections.singletonList(col.getTitle()));
-            }
+        // 构建表头
+        List<List<String>> head = new ArrayList<>();
+        for (ExportColumn col : columns) {
+            head.add(Collections.singletonList(col.getTitle()));
+        }
 
+        try (ExcelWriter writer = EasyExcel.write(os)
+                .registerWriteHandler(defaultStyle())
+                .head(head)
+                .build()) {
             // 构建数据行（带公式注入防护）
-            List<List<Object>> rows = new ArrayList<>();
-            for (T item : data) {
-                if (item == null) {
-                    continue;
-                }
-                List<Object> rowData = new ArrayList<>();
+            writeSheets(writer, data, item -> {
+                List<Object> rowData = new ArrayList<>(columns.size());
                 for (ExportColumn col : columns) {
                     rowData.add(sanitizeCellValue(extractor.extract(item, col.getField())));
                 }
-                rows.add(rowData);
-            }
-
-            EasyExcel.write(os)
-                    .registerWriteHandler(defaultStyle())
-                    .head(head)
-                    .sheet(sheetName)
-                    .doWrite(rows);
+                return rowData;
+            }, sheetName, rowsPerSheet);
         } catch (BizException e) {
             throw e;
         } catch (Exception e) {
@@ -157,6 +226,75 @@ public final class ExcelUtils {
         }
     }
 
+    /**
+     * 每 {@value #WRITE_BATCH_SIZE} 行写入一次；当前Sheet写满 rowsPerSheet 行后换到下一个Sheet（每个Sheet都有表头）
+     */
+    private static <T> void writeSheets(ExcelWriter writer, Iterator<T> data, Function<T, Object> rowMapper,
+                                        String sheetName, int rowsPerSheet) {
+        if (data == null) {
+            data = Collections.emptyIterator();
+        }
+        int sheetNo = 0;
+        WriteSheet sheet = EasyExcel.writerSheet(sheetNo, sheetName).build();
+        List<Object> rows = new ArrayList<>(Math.min(WRITE_BATCH_SIZE, rowsPerSheet));
+        int sheetRows = 0;
+        boolean written = false;
+        while (data.hasNext()) {
+            T item = data.next();
+            if (item == null) {
+                continue;
+            }
+            if (sheetRows == rowsPerSheet) {
+                if (!rows.isEmpty()) {
+                    writer.write(rows, sheet);
+                    rows.clear();
+                }
+                sheetNo++;
+                sheet = EasyExcel.writerSheet(sheetNo, rolloverSheetName(sheetName, sheetNo + 1)).build();
+                sheetRows = 0;
+            }
+            rows.add(rowMapper.apply(item));
+            sheetRows++;
+            if (rows.size() >= WRITE_BATCH_SIZE) {
+                writer.write(rows, sheet);
+                rows.clear();
+                written = true;
+            }
+        }
+        // 没有数据时也写出表头
+        if (!rows.isEmpty() || !written) {
+            writer.write(rows, sheet);
+        }
+    }
+
+    /**
+     * 后续Sheet名称：Sheet1 依次为 Sheet2、Sheet3…；其他名称追加序号，如 用户列表_2
+     */
+    private static String rolloverSheetName(String sheetName, int index) {
+        String base = sheetName;
+        String suffix = "_" + index;
+        if (sheetName.length() > 1 && sheetName.endsWith("1")
+                && !Character.isDigit(sheetName.charAt(sheetName.length() - 2))) {
+            base = sheetName.substring(0, sheetName.length() - 1);
+            suffix = String.valueOf(index);
+        }
+        // Sheet名称最长31个字符
+        if (base.length() + suffix.length() > MAX_SHEET_NAME_LENGTH) {
+            base = base.substring(0, MAX_SHEET_NAME_LENGTH - suffix.length());
+        }
+        return base + suffix;
+    }
+
+    private static <T> Iterator<T> pageIterator(PageFetcher<T> fetcher, int pageSize) {
+        if (fetcher == null) {
+            throw new BizException(400, "分页查询不能为空");
+        }
+        if (pageSize <= 0) {
+            throw new BizException(400, "每页条数必须大于0");
+        }
+        return new PageIterator<>(fetcher, pageSize);
+    }
+
     /**
      * 模板填充导出
      */
@@ -278,6 +416,12 @@ public final class ExcelUtils {
         }
     }
 
+    private static void validateRowsPerSheet(int rowsPerSheet) {
+        if (rowsPerSheet <= 0 || rowsPerSheet > MAX_ROWS_PER_SHEET) {
+            throw new BizException(400, "每个Sheet的行数必须在1到" + MAX_ROWS_PER_SHEET + "之间");
+        }
+    }
+
     private static void validateColumns(List<ExportColumn> columns) {
         if (columns == null || columns.isEmpty()) {
             throw new BizException(400, "导出列不能为空");
@@ -320,6 +464,20 @@ public final class ExcelUtils {
         Object extract(T item, String field);
     }
 
+    /**
+     * 分页查询接口
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        /**
+         * 查询一页数据
+         * @param pageNo   页码（从1开始）
+         * @param pageSize 每页条数
+         * @return 当页数据，空列表或null表示没有更多数据
+         */
+        List<T> fetch(int pageNo, int pageSize);
+    }
+
     /**
      * 行校验器接口
      */
@@ -331,4 +489,45 @@ public final class ExcelUtils {
          */
         String validate(T row);
     }
+
+    /**
+     * 分页迭代器：当前页读完后再拉取下一页
+     */
+    private static final class PageIterator<T> implements Iterator<T> {
+        private final PageFetcher<T> fetcher;
+        private final int pageSize;
+        private int pageNo;
+        private Iterator<T> page = Collections.emptyIterator();
+        private boolean last;
+
+        PageIterator(PageFetcher<T> fetcher, int pageSize) {
+            this.fetcher = fetcher;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext()) {
+                if (last) {
+                    return false;
+                }
+                List<T> rows = fetcher.fetch(++pageNo, pageSize);
+                if (rows == null || rows.isEmpty()) {
+                    last = true;
+                    return false;
+                }
+                last = rows.size() < pageSize;
+                page = rows.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
 }